@@ -0,0 +1,287 @@
+package com.apicatalog.cli.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.apicatalog.cli.App;
+import com.apicatalog.cli.loader.Loaders;
+
+/**
+ * Measures commands executed in-process, the same way the daemon runs them.
+ * Remote contexts are served from a context pack built from local copies, no
+ * network access is made.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommandBenchmark {
+
+    static final String CREDENTIALS_V1 = "https://www.w3.org/2018/credentials/v1";
+
+    static final String[][] CONTEXTS = {
+            { CREDENTIALS_V1, "contexts/credentials-v1.jsonld" },
+            { "https://www.w3.org/ns/did/v1", "contexts/did-v1.jsonld" },
+            { "https://w3id.org/security/multikey/v1", "contexts/multikey-v1.jsonld" },
+            { "https://example.org/benchmark/v1", "contexts/benchmark-v1.jsonld" },
+    };
+
+    static final String[] FIXTURES = {
+            "credential.jsonld",
+            "did.jsonld",
+            "frame.jsonld",
+            "dictionary.json",
+    };
+
+    /** The number of quads of the generated dataset canonicalized by rdfc. */
+    @Param({ "10000" })
+    int quads;
+
+    Path dir;
+
+    PrintStream stdout;
+
+    String credential;
+    String did;
+    String frame;
+    String dictionary;
+    String credentialQuads;
+    String dataset;
+    String cbor;
+    String key;
+    String multibaseKey;
+    String multicodecKey;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+
+        dir = Files.createTempDirectory("ld-cli-benchmark");
+
+        for (final String[] context : CONTEXTS) {
+            copy(context[1]);
+        }
+        for (final String fixture : FIXTURES) {
+            copy(fixture);
+        }
+
+        credential = path("credential.jsonld");
+        did = path("did.jsonld");
+        frame = path("frame.jsonld");
+        dictionary = path("dictionary.json");
+
+        final Path pack = dir.resolve("contexts.ldcp");
+
+        final String[] packArgs = new String[CONTEXTS.length + 4];
+        packArgs[0] = "contexts";
+        packArgs[1] = "pack";
+        packArgs[2] = "--output";
+        packArgs[3] = pack.toString();
+        for (int i = 0; i < CONTEXTS.length; i++) {
+            packArgs[i + 4] = CONTEXTS[i][0] + "=" + dir.resolve(CONTEXTS[i][1]);
+        }
+        run(packArgs);
+
+        Loaders.packs(Loaders.open(List.of(pack)));
+        Loaders.offline(true);
+
+        stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        credentialQuads = path("credential.nq");
+        capture(credentialQuads, "tordf", "-i", credential);
+
+        dataset = path("dataset.nq");
+        generate(Path.of(dataset), quads);
+
+        cbor = path("credential.cbor");
+        run("compress", "-d", dictionary, "-i", credential, "-o", cbor);
+
+        key = path("key.bin");
+        final byte[] bytes = new byte[32];
+        new Random(42).nextBytes(bytes);
+        Files.write(Path.of(key), bytes);
+
+        multibaseKey = path("key.mb");
+        run("multibase", "-e", "base58btc", "-i", key, "-o", multibaseKey);
+
+        multicodecKey = path("key.mc");
+        run("multicodec", "-e", "ed25519-pub", "--output-multibase", "base58btc", "-i", key, "-o", multicodecKey);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.setOut(stdout);
+        try (final Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    /** Command line parsing and dispatching only. */
+    @Benchmark
+    public int version() {
+        return run("--version");
+    }
+
+    @Benchmark
+    public int expandCredential() {
+        return run("expand", "-i", credential);
+    }
+
+    @Benchmark
+    public int expandDid() {
+        return run("expand", "-i", did);
+    }
+
+    @Benchmark
+    public int compact() {
+        return run("compact", "-i", credential, CREDENTIALS_V1);
+    }
+
+    @Benchmark
+    public int flatten() {
+        return run("flatten", "-i", credential);
+    }
+
+    @Benchmark
+    public int frame() {
+        return run("frame", "-i", credential, frame);
+    }
+
+    @Benchmark
+    public int toRdf() {
+        return run("tordf", "-i", credential);
+    }
+
+    @Benchmark
+    public int fromRdf() {
+        return run("fromrdf", "-i", credentialQuads);
+    }
+
+    @Benchmark
+    public int rdfc() {
+        return run("rdfc", "--timeout", "0", "-i", dataset);
+    }
+
+    @Benchmark
+    public int rdfcParallel() {
+        return run("rdfc", "--timeout", "0", "--parallel", "-i", dataset);
+    }
+
+    @Benchmark
+    public int jcs() {
+        return run("jcs", "-i", credential);
+    }
+
+    @Benchmark
+    public int compress() {
+        return run("compress", "-d", dictionary, "-i", credential);
+    }
+
+    @Benchmark
+    public int decompress() {
+        return run("decompress", "-d", dictionary, "-i", cbor);
+    }
+
+    @Benchmark
+    public int multibaseEncode() {
+        return run("multibase", "-e", "base58btc", "-i", key);
+    }
+
+    @Benchmark
+    public int multibaseDecode() {
+        return run("multibase", "-d", "-i", multibaseKey);
+    }
+
+    @Benchmark
+    public int multicodecEnrich() {
+        return run("multicodec", "-e", "ed25519-pub", "--output-multibase", "base58btc", "-i", key);
+    }
+
+    @Benchmark
+    public int multicodecAnalyze() {
+        return run("multicodec", "-a", "--multibase", "-i", multicodecKey);
+    }
+
+    static int run(String... args) {
+        final int code = App.execute(args);
+        if (code != 0) {
+            throw new IllegalStateException("Command " + String.join(" ", args) + " has failed with exit code " + code + ".");
+        }
+        return code;
+    }
+
+    static void capture(String output, String... args) throws IOException {
+        final PrintStream out = System.out;
+        try (final PrintStream file = new PrintStream(Files.newOutputStream(Path.of(output)), false, StandardCharsets.UTF_8)) {
+            System.setOut(file);
+            run(args);
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    /**
+     * Generates a dataset of people knowing each other, described by blank
+     * nodes, and ground items referring to them.
+     */
+    static void generate(Path path, int quads) throws IOException {
+        final int nodes = Math.max(1, quads / 4);
+        try (final Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < nodes; i++) {
+                writer.write("_:b" + i + " <http://schema.org/name> \"Person " + i + "\" .\n");
+                writer.write("_:b" + i + " <http://schema.org/knows> _:b" + ((i * 7 + 1) % nodes) + " .\n");
+                writer.write("<https://example.org/items/" + i + "> <http://schema.org/identifier> \"" + i + "\"^^<http://www.w3.org/2001/XMLSchema#integer> <https://example.org/graph> .\n");
+                writer.write("<https://example.org/items/" + i + "> <http://schema.org/creator> _:b" + i + " .\n");
+            }
+        }
+    }
+
+    void copy(String name) throws IOException {
+        final Path target = dir.resolve(name);
+        Files.createDirectories(target.getParent());
+        try (final InputStream is = CommandBenchmark.class.getResourceAsStream("/fixtures/" + name)) {
+            if (is == null) {
+                throw new IllegalStateException("Missing fixture " + name + ".");
+            }
+            Files.copy(is, target);
+        }
+    }
+
+    String path(String name) {
+        return dir.resolve(name).toString();
+    }
+}
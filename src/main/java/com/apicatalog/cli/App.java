@@ -1,17 +1,27 @@
 package com.apicatalog.cli;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
+import com.apicatalog.cli.command.CacheCmd;
 import com.apicatalog.cli.command.CompactCmd;
 import com.apicatalog.cli.command.CompressCmd;
+import com.apicatalog.cli.command.ContextsCmd;
 import com.apicatalog.cli.command.DecompressCmd;
+import com.apicatalog.cli.command.DictionaryCmd;
 import com.apicatalog.cli.command.ExpandCmd;
 import com.apicatalog.cli.command.FlattenCmd;
 import com.apicatalog.cli.command.FrameCmd;
 import com.apicatalog.cli.command.FromRdfCmd;
 import com.apicatalog.cli.command.JcsCmd;
+import com.apicatalog.cli.command.LdHashCmd;
 import com.apicatalog.cli.command.MultibaseCmd;
 import com.apicatalog.cli.command.MulticodecCmd;
 import com.apicatalog.cli.command.RdfCanonCmd;
+import com.apicatalog.cli.command.ServeCmd;
 import com.apicatalog.cli.command.ToRdfCmd;
+import com.apicatalog.cli.daemon.DaemonClient;
+import com.apicatalog.cli.metrics.Metrics;
 import com.apicatalog.jsonld.http.media.MediaType;
 import com.apicatalog.jsonld.loader.HttpLoader;
 
@@ -30,10 +40,15 @@ import picocli.CommandLine.ParseResult;
         ToRdfCmd.class,
         CompressCmd.class,
         DecompressCmd.class,
+        DictionaryCmd.class,
         RdfCanonCmd.class,
         JcsCmd.class,
+        LdHashCmd.class,
         MultibaseCmd.class,
         MulticodecCmd.class,
+        ServeCmd.class,
+        CacheCmd.class,
+        ContextsCmd.class,
 }, mixinStandardHelpOptions = false, descriptionHeading = "%n", parameterListHeading = "%nParameters:%n", optionListHeading = "%nOptions:%n", commandListHeading = "%nCommands:%n", version = {
         "ld-cli            1.0.3   https://github.com/filip26/ld-cli",
         "titanium-json-ld  1.7.0   https://github.com/filip26/titanium-json-ld",
@@ -57,9 +72,52 @@ public final class App {
 
     public static void main(String[] args) {
 
+        final String socket = System.getenv(ServeCmd.SOCKET_ENV);
+
+        if (socket != null && !socket.isBlank() && (args.length == 0 || !ServeCmd.NAME.equals(args[0]))) {
+
+            final var channel = DaemonClient.connect(Path.of(socket));
+
+            if (channel != null) {
+                try {
+                    System.exit(DaemonClient.execute(channel, args, System.in, System.out, System.err));
+
+                } catch (IOException e) {
+                    System.err.println("Daemon connection failed: " + e.getMessage());
+                    System.exit(1);
+                }
+                return;
+            }
+        }
+
+        System.exit(execute(args));
+    }
+
+    public static int execute(String[] args) {
+        return execute(args, null);
+    }
+
+    /**
+     * Executes the command line.
+     *
+     * @param args      command line arguments
+     * @param directory a working directory relative paths are resolved against,
+     *                  or <code>null</code> to use the process working directory
+     * @return an exit code
+     */
+    public static int execute(String[] args, Path directory) {
+
+        // the option is set again while the invocation is parsed
+        Metrics.report(null);
+
+        final Metrics.Snapshot start = Metrics.snapshot();
+
         final CommandLine cli = new CommandLine(new App());
         cli.setCaseInsensitiveEnumValuesAllowed(true);
         cli.setExecutionExceptionHandler(new ErrorHandler());
+        cli.registerConverter(Path.class, WorkingDirectory::resolve);
+
+        WorkingDirectory.set(directory);
 
         try {
 
@@ -67,18 +125,25 @@ public final class App {
 
             if (cli.isUsageHelpRequested()) {
                 usage(cli, result);
-                System.exit(cli.getCommandSpec().exitCodeOnUsageHelp());
-                return;
+                return cli.getCommandSpec().exitCodeOnUsageHelp();
             }
 
             if (cli.isVersionHelpRequested()) {
                 cli.printVersionHelp(cli.getOut());
-                System.exit(cli.getCommandSpec().exitCodeOnVersionHelp());
-                return;
+                return cli.getCommandSpec().exitCodeOnVersionHelp();
             }
 
-            System.exit(cli.execute(args));
-            return;
+            final int code;
+
+            try (final Metrics.Phase phase = Metrics.phase("command")) {
+                code = cli.execute(args);
+            }
+
+            if (Metrics.report() != null) {
+                Metrics.snapshot().since(start).print(cli.getErr(), Metrics.report());
+            }
+
+            return code;
 
         } catch (MissingParameterException e) {
             cli.getErr().println(e.getMessage());
@@ -86,9 +151,12 @@ public final class App {
 
         } catch (Exception ex) {
             cli.getErr().println(ex.getMessage());
+
+        } finally {
+            WorkingDirectory.set(null);
         }
 
-        System.exit(cli.getCommandSpec().exitCodeOnExecutionException());
+        return cli.getCommandSpec().exitCodeOnExecutionException();
     }
 
     static final void usage(final CommandLine cli, final ParseResult result) {
@@ -0,0 +1,199 @@
+package com.apicatalog.cli;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.apicatalog.cli.loader.Loaders;
+import com.apicatalog.jsonld.JsonLd;
+import com.apicatalog.jsonld.JsonLdError;
+import com.apicatalog.jsonld.document.JsonDocument;
+
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
+
+/**
+ * Learns a custom CBOR-LD dictionary from a corpus of JSON-LD documents.
+ * Context URLs, node identifiers and typed literal values are counted, the
+ * most frequent values get the smallest codes, i.e. the shortest CBOR
+ * integers. Thread-safe, documents can be added concurrently.
+ */
+public final class CborDictionaryTrainer {
+
+    /** The first custom context code, lower codes are reserved by the registry. */
+    static final int CONTEXT_CODE = 32768;
+
+    /** The first URI and typed value code. */
+    static final int VALUE_CODE = 1;
+
+    final Map<String, LongAdder> contexts;
+    final Map<String, LongAdder> uris;
+    final Map<String, Map<String, LongAdder>> types;
+
+    final LongAdder documents;
+
+    public CborDictionaryTrainer() {
+        this.contexts = new ConcurrentHashMap<>();
+        this.uris = new ConcurrentHashMap<>();
+        this.types = new ConcurrentHashMap<>();
+        this.documents = new LongAdder();
+    }
+
+    /**
+     * Counts values of a compacted document. Contexts are taken as they are,
+     * URIs and typed values are collected from the expanded form.
+     */
+    public void add(JsonObject document) throws JsonLdError {
+
+        contexts(document);
+
+        values(JsonLd.expand(JsonDocument.of(document))
+                .options(Loaders.options())
+                .get());
+
+        documents.increment();
+    }
+
+    /**
+     * Builds a dictionary definition compatible with
+     * {@link JsonCborDictionary}.
+     *
+     * @param code     a dictionary registry code
+     * @param minCount the minimal number of occurrences of a value to get a
+     *                 code
+     * @return a JSON dictionary definition
+     */
+    public JsonObject build(int code, long minCount) {
+
+        final JsonObjectBuilder dictionary = Json.createObjectBuilder()
+                .add("code", code);
+
+        table(contexts, CONTEXT_CODE, minCount).ifPresent(table -> dictionary.add("context", table));
+        table(uris, VALUE_CODE, minCount).ifPresent(table -> dictionary.add("uri", table));
+
+        types.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(type -> table(type.getValue(), VALUE_CODE, minCount)
+                        .ifPresent(table -> dictionary.add(type.getKey(), table)));
+
+        return dictionary.build();
+    }
+
+    public long documents() {
+        return documents.sum();
+    }
+
+    /**
+     * Orders values by frequency, then by the encoded length, longer first,
+     * and assigns consecutive codes.
+     */
+    static Optional<JsonObject> table(Map<String, LongAdder> counts, int first, long minCount) {
+
+        final JsonObjectBuilder table = Json.createObjectBuilder();
+
+        final int[] next = { first };
+
+        counts.entrySet().stream()
+                .map(e -> Map.entry(e.getKey(), e.getValue().sum()))
+                .filter(e -> e.getValue() >= minCount)
+                .sorted(Comparator.<Map.Entry<String, Long>>comparingLong(Map.Entry::getValue).reversed()
+                        .thenComparing(Comparator.<Map.Entry<String, Long>>comparingInt(e -> e.getKey().getBytes(StandardCharsets.UTF_8).length).reversed())
+                        .thenComparing(Map.Entry::getKey))
+                .forEach(e -> table.add(e.getKey(), next[0]++));
+
+        return next[0] > first
+                ? Optional.of(table.build())
+                : Optional.empty();
+    }
+
+    void contexts(JsonValue value) {
+
+        switch (value.getValueType()) {
+        case OBJECT:
+            for (final Map.Entry<String, JsonValue> entry : value.asJsonObject().entrySet()) {
+                if ("@context".equals(entry.getKey())) {
+                    context(entry.getValue());
+                    continue;
+                }
+                contexts(entry.getValue());
+            }
+            return;
+
+        case ARRAY:
+            value.asJsonArray().forEach(this::contexts);
+            return;
+
+        default:
+            return;
+        }
+    }
+
+    void context(JsonValue value) {
+
+        switch (value.getValueType()) {
+        case STRING:
+            count(contexts, ((JsonString) value).getString());
+            return;
+
+        case ARRAY:
+            // embedded contexts are encoded as they are
+            value.asJsonArray().stream()
+                    .filter(item -> item.getValueType() == JsonValue.ValueType.STRING)
+                    .forEach(this::context);
+            return;
+
+        default:
+            return;
+        }
+    }
+
+    void values(JsonValue value) {
+
+        switch (value.getValueType()) {
+        case OBJECT:
+            final JsonObject object = value.asJsonObject();
+
+            if (object.containsKey("@value")) {
+                final JsonValue literal = object.get("@value");
+                final JsonValue type = object.get("@type");
+                if (literal.getValueType() == JsonValue.ValueType.STRING
+                        && type != null
+                        && type.getValueType() == JsonValue.ValueType.STRING) {
+                    count(types.computeIfAbsent(((JsonString) type).getString(), t -> new ConcurrentHashMap<>()),
+                            ((JsonString) literal).getString());
+                }
+                return;
+            }
+
+            for (final Map.Entry<String, JsonValue> entry : object.entrySet()) {
+                if ("@id".equals(entry.getKey())) {
+                    // blank node identifiers are not encoded
+                    if (entry.getValue().getValueType() == JsonValue.ValueType.STRING
+                            && !((JsonString) entry.getValue()).getString().startsWith("_:")) {
+                        count(uris, ((JsonString) entry.getValue()).getString());
+                    }
+                    continue;
+                }
+                values(entry.getValue());
+            }
+            return;
+
+        case ARRAY:
+            value.asJsonArray().forEach(this::values);
+            return;
+
+        default:
+            return;
+        }
+    }
+
+    static void count(Map<String, LongAdder> counts, String value) {
+        counts.computeIfAbsent(value, v -> new LongAdder()).increment();
+    }
+}
@@ -0,0 +1,295 @@
+package com.apicatalog.cli;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.apicatalog.cborld.registry.DocumentDictionary;
+import com.apicatalog.cborld.registry.DocumentDictionaryBuilder;
+
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonValue;
+
+/**
+ * A validated CBOR-LD dictionary compiled into a compact binary form. The file
+ * is memory-mapped and read sequentially, no JSON parsing is involved.
+ *
+ * <pre>
+ * magic    "LDCD"
+ * version  u8
+ * code     u32
+ * count    u32
+ * tables   count * (kind: u8, type: UTF, size: u32, entries)
+ * entries  size * (term: UTF, code: u32)
+ * </pre>
+ *
+ * A table kind is <code>0</code> for contexts, <code>1</code> for URIs and
+ * <code>2</code> for a type, the type is an empty string for the first two.
+ */
+public final class CompiledCborDictionary {
+
+    static final byte[] MAGIC = { 'L', 'D', 'C', 'D' };
+    static final byte VERSION = 1;
+
+    static final byte CONTEXT = 0;
+    static final byte URI = 1;
+    static final byte TYPE = 2;
+
+    private CompiledCborDictionary() {
+    }
+
+    /**
+     * Returns <code>true</code> if the file starts with the compiled dictionary
+     * magic.
+     */
+    public static boolean isCompiled(Path path) throws IOException {
+        try (final InputStream is = Files.newInputStream(path)) {
+            return Arrays.equals(MAGIC, is.readNBytes(MAGIC.length));
+        }
+    }
+
+    public static DocumentDictionary open(Path path) throws IOException {
+
+        final ByteBuffer buffer;
+
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        final var builder = DocumentDictionaryBuilder.create(header(path, buffer));
+
+        read(path, buffer, DictionaryTerms.of(builder));
+
+        return builder.build();
+    }
+
+    /**
+     * Checks the magic and the version, returns the dictionary code.
+     */
+    static int header(Path path, ByteBuffer buffer) throws IOException {
+
+        for (final byte b : MAGIC) {
+            if (!buffer.hasRemaining() || buffer.get() != b) {
+                throw new IOException("Invalid compiled dictionary [" + path + "].");
+            }
+        }
+
+        try {
+            final byte version = buffer.get();
+            if (version != VERSION) {
+                throw new IOException("Unsupported compiled dictionary [" + path + "] version " + version + ".");
+            }
+            return buffer.getInt();
+
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Invalid compiled dictionary [" + path + "], the file is truncated.", e);
+        }
+    }
+
+    /**
+     * Reads the tables following the header.
+     */
+    static void read(Path path, ByteBuffer buffer, DictionaryTerms terms) throws IOException {
+
+        try {
+            final int count = buffer.getInt();
+
+            for (int i = 0; i < count; i++) {
+
+                final byte kind = buffer.get();
+
+                if (kind != CONTEXT && kind != URI && kind != TYPE) {
+                    throw new IOException("Invalid compiled dictionary [" + path + "], unknown table kind " + kind + ".");
+                }
+
+                final String type = readUTF(buffer);
+                final int size = buffer.getInt();
+
+                for (int j = 0; j < size; j++) {
+                    final String term = readUTF(buffer);
+                    final int code = buffer.getInt();
+                    switch (kind) {
+                    case CONTEXT -> terms.context(term, code);
+                    case URI -> terms.uri(term, code);
+                    default -> terms.type(type, code, term);
+                    }
+                }
+            }
+
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Invalid compiled dictionary [" + path + "], the file is truncated.", e);
+        }
+
+        if (buffer.hasRemaining()) {
+            throw new IOException("Invalid compiled dictionary [" + path + "], unexpected " + buffer.remaining() + " bytes after the last table.");
+        }
+    }
+
+    /**
+     * Validates a JSON dictionary definition and writes its compiled form. The
+     * definition is validated before the target is touched, the compiled form
+     * is written to a temporary file moved into place once complete.
+     *
+     * @param path       a target file
+     * @param dictionary a JSON dictionary definition
+     * @return the number of compiled terms
+     */
+    public static int write(Path path, JsonObject dictionary) throws IOException {
+
+        final JsonValue value = dictionary.get("code");
+
+        if (!(value instanceof JsonNumber number) || !number.isIntegral()) {
+            throw new IllegalArgumentException("Invalid dictionary definition, an integer \"code\" is required.");
+        }
+
+        final int code;
+        try {
+            code = number.intValueExact();
+
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid dictionary definition, \"code\" " + number + " is out of range.");
+        }
+
+        final Map<String, Map<String, Integer>> tables = new LinkedHashMap<>();
+
+        for (final Map.Entry<String, JsonValue> table : dictionary.entrySet()) {
+            if ("code".equals(table.getKey())) {
+                continue;
+            }
+            if (!"context".equals(table.getKey()) && !"uri".equals(table.getKey())) {
+                checkLength("Invalid dictionary table [" + abbreviate(table.getKey()) + "], the name is too long.", table.getKey());
+            }
+            tables.put(table.getKey(), table(table.getKey(), table.getValue()));
+        }
+
+        final Path parent = path.toAbsolutePath().getParent();
+        final Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+
+        int terms = 0;
+
+        try {
+            try (final DataOutputStream os = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 64 * 1024))) {
+
+                os.write(MAGIC);
+                os.writeByte(VERSION);
+                os.writeInt(code);
+                os.writeInt(tables.size());
+
+                for (final Map.Entry<String, Map<String, Integer>> table : tables.entrySet()) {
+
+                    switch (table.getKey()) {
+                    case "context" -> {
+                        os.writeByte(CONTEXT);
+                        writeUTF(os, "");
+                    }
+                    case "uri" -> {
+                        os.writeByte(URI);
+                        writeUTF(os, "");
+                    }
+                    default -> {
+                        os.writeByte(TYPE);
+                        writeUTF(os, table.getKey());
+                    }
+                    }
+
+                    os.writeInt(table.getValue().size());
+
+                    for (final Map.Entry<String, Integer> entry : table.getValue().entrySet()) {
+                        writeUTF(os, entry.getKey());
+                        os.writeInt(entry.getValue());
+                    }
+
+                    terms += table.getValue().size();
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        return terms;
+    }
+
+    /**
+     * Validates a single term table. Codes must be integers unique within the
+     * table so terms can be restored unambiguously.
+     */
+    static Map<String, Integer> table(String name, JsonValue value) {
+
+        if (!(value instanceof JsonObject object)) {
+            throw new IllegalArgumentException("Invalid dictionary table [" + name + "], an object is expected.");
+        }
+
+        final Map<String, Integer> table = new LinkedHashMap<>(object.size() * 2);
+        final Map<Integer, String> terms = new HashMap<>(object.size() * 2);
+
+        for (final Map.Entry<String, JsonValue> entry : object.entrySet()) {
+
+            if (!(entry.getValue() instanceof JsonNumber number) || !number.isIntegral()) {
+                throw new IllegalArgumentException("Invalid dictionary table [" + name + "], term [" + entry.getKey() + "] code must be an integer.");
+            }
+
+            final int code;
+            try {
+                code = number.intValueExact();
+
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Invalid dictionary table [" + name + "], term [" + entry.getKey() + "] code " + number + " is out of range.");
+            }
+
+            checkLength("Invalid dictionary table [" + name + "], term [" + abbreviate(entry.getKey()) + "] is too long.", entry.getKey());
+
+            final String previous = terms.putIfAbsent(code, entry.getKey());
+            if (previous != null) {
+                throw new IllegalArgumentException("Invalid dictionary table [" + name + "], terms [" + previous + "] and [" + entry.getKey() + "] share code " + code + ".");
+            }
+
+            table.put(entry.getKey(), code);
+        }
+
+        return table;
+    }
+
+    /**
+     * Terms are written with an unsigned 16-bit length prefix.
+     */
+    static void checkLength(String message, String value) {
+        if (value.length() > 0xffff / 3 && value.getBytes(StandardCharsets.UTF_8).length > 0xffff) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    static String abbreviate(String value) {
+        return value.length() > 64
+                ? value.substring(0, 64) + "..."
+                : value;
+    }
+
+    static void writeUTF(DataOutputStream os, String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        os.writeShort(bytes.length);
+        os.write(bytes);
+    }
+
+    static String readUTF(ByteBuffer buffer) {
+        final int length = Short.toUnsignedInt(buffer.getShort());
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
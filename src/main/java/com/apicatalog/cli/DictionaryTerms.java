@@ -0,0 +1,36 @@
+package com.apicatalog.cli;
+
+import com.apicatalog.cborld.registry.DocumentDictionaryBuilder;
+
+/**
+ * Receives terms of a CBOR-LD dictionary as they are read from a JSON
+ * definition or a compiled dictionary.
+ */
+interface DictionaryTerms {
+
+    void context(String term, int code);
+
+    void uri(String term, int code);
+
+    void type(String type, int code, String term);
+
+    static DictionaryTerms of(DocumentDictionaryBuilder builder) {
+        return new DictionaryTerms() {
+
+            @Override
+            public void context(String term, int code) {
+                builder.context(term, code);
+            }
+
+            @Override
+            public void uri(String term, int code) {
+                builder.uri(term, code);
+            }
+
+            @Override
+            public void type(String type, int code, String term) {
+                builder.type(type, code, term);
+            }
+        };
+    }
+}
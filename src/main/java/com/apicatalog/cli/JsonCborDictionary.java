@@ -1,19 +1,17 @@
 package com.apicatalog.cli;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
-import java.nio.file.Files;
 import java.nio.file.Path;
 
 import com.apicatalog.cborld.registry.DocumentDictionary;
 import com.apicatalog.cborld.registry.DocumentDictionaryBuilder;
+import com.apicatalog.cli.loader.Loaders;
+import com.apicatalog.cli.mixin.CompressedInput;
 import com.apicatalog.jsonld.JsonLdError;
 import com.apicatalog.jsonld.document.Document;
-import com.apicatalog.jsonld.loader.DocumentLoader;
 import com.apicatalog.jsonld.loader.DocumentLoaderOptions;
-import com.apicatalog.jsonld.loader.SchemeRouter;
 
 import jakarta.json.Json;
 import jakarta.json.JsonNumber;
@@ -22,12 +20,25 @@ import jakarta.json.stream.JsonParser;
 
 public class JsonCborDictionary {
 
+    /**
+     * Loads a JSON dictionary definition, or a dictionary compiled by
+     * <code>dictionary compile</code> if the location is a local file.
+     */
     public static DocumentDictionary of(URI input) throws IOException, JsonLdError {
-        if (input.isAbsolute()) {
-            final DocumentLoader loader = SchemeRouter.defaultInstance();
-            return of(loader.loadDocument(input, new DocumentLoaderOptions()));
+
+        final Path path = input.isAbsolute()
+                ? "file".equalsIgnoreCase(input.getScheme()) ? Path.of(input) : null
+                : WorkingDirectory.resolve(input.toString());
+
+        if (path == null) {
+            return of(Loaders.get().loadDocument(input, new DocumentLoaderOptions()));
+        }
+        if (CompiledCborDictionary.isCompiled(path)) {
+            return CompiledCborDictionary.open(path);
+        }
+        try (final InputStream is = CompressedInput.open(path)) {
+            return of(is);
         }
-        return of(new ByteArrayInputStream(Files.readAllBytes(Path.of(input.toString()))));
     }
 
     public static DocumentDictionary of(Document doc) {
@@ -40,6 +51,11 @@ public class JsonCborDictionary {
 
     public static DocumentDictionary of(JsonObject json) {
         var builder = DocumentDictionaryBuilder.create(json.getInt("code"));
+        read(json, DictionaryTerms.of(builder));
+        return builder.build();
+    }
+
+    static void read(JsonObject json, DictionaryTerms terms) {
 
         for (var item : json.entrySet()) {
             switch (item.getKey()) {
@@ -48,22 +64,24 @@ public class JsonCborDictionary {
 
             case "context":
                 item.getValue().asJsonObject().entrySet()
-                        .forEach(e -> builder.context(e.getKey(),
+                        .forEach(e -> terms.context(e.getKey(),
                                 ((JsonNumber) e.getValue()).intValue()));
+                continue;
+
             case "uri":
                 item.getValue().asJsonObject().entrySet()
-                        .forEach(e -> builder.uri(e.getKey(),
+                        .forEach(e -> terms.uri(e.getKey(),
                                 ((JsonNumber) e.getValue()).intValue()));
+                continue;
+
             default:
                 item.getValue().asJsonObject().entrySet()
-                        .forEach(e -> builder.type(
+                        .forEach(e -> terms.type(
                                 item.getKey(),
                                 ((JsonNumber) e.getValue()).intValue(),
                                 e.getKey()));
             }
         }
-
-        return builder.build();
     }
 
     public static JsonObject parse(InputStream json) {
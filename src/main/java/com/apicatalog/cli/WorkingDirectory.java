@@ -0,0 +1,46 @@
+package com.apicatalog.cli;
+
+import java.nio.file.Path;
+
+/**
+ * A working directory of the running invocation. A daemon executes commands
+ * on behalf of clients running in other directories, relative paths are
+ * resolved against the client's working directory then.
+ * <p>
+ * A daemon executes invocations one at a time, see
+ * {@link com.apicatalog.cli.daemon.DaemonServer}.
+ */
+public final class WorkingDirectory {
+
+    static Path current = null;
+
+    private WorkingDirectory() {
+    }
+
+    /**
+     * Resolves a path against the working directory of the running invocation.
+     *
+     * @param path a relative or an absolute path
+     * @return the path as is if executed locally, an absolute path otherwise
+     */
+    public static Path resolve(Path path) {
+        return current != null
+                ? current.resolve(path)
+                : path;
+    }
+
+    public static Path resolve(String path) {
+        return resolve(Path.of(path));
+    }
+
+    /**
+     * Sets the working directory of the running invocation. {@link Path}
+     * options and parameters are resolved by {@link App} while parsed.
+     *
+     * @param directory a client's working directory, or <code>null</code> if
+     *                  executed locally
+     */
+    static void set(Path directory) {
+        current = directory;
+    }
+}
@@ -0,0 +1,125 @@
+package com.apicatalog.cli.canon;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import com.apicatalog.rdf.api.RdfConsumerException;
+import com.apicatalog.rdf.api.RdfQuadConsumer;
+import com.apicatalog.rdf.canon.RdfCanonTicker;
+
+/**
+ * Limits work spent on canonicalizing a single dataset. The number of blank
+ * nodes is checked while quads are read, canonicalization steps, i.e. ticks
+ * issued by {@link com.apicatalog.rdf.canon.RdfCanon} while hashing related
+ * blank nodes and iterating permutations, and the elapsed time are checked by
+ * the ticker. A limit set to zero is not applied. Quads and blank nodes are
+ * counted only if the blank node budget is set or a report is requested.
+ */
+public final class CanonBudget implements RdfCanonTicker {
+
+    /** The deadline is checked once per the number of steps. */
+    static final int CLOCK_STEP = 256;
+
+    final long maxSteps;
+    final long maxBlankNodes;
+    final long timeout;
+
+    final long start;
+
+    /** Distinct blank nodes, <code>null</code> if not counted. */
+    final Set<String> blankNodes;
+
+    long quads;
+    long steps;
+
+    /**
+     * Creates a new budget, the time budget starts now.
+     *
+     * @param maxSteps      the maximal number of canonicalization steps
+     * @param maxBlankNodes the maximal number of distinct blank nodes
+     * @param timeout       the maximal duration in milliseconds
+     * @param count         <code>true</code> to count quads and blank nodes
+     *                      for {@link #report()} even if the blank node budget
+     *                      is not set
+     */
+    public CanonBudget(long maxSteps, long maxBlankNodes, long timeout, boolean count) {
+        this.maxSteps = maxSteps;
+        this.maxBlankNodes = maxBlankNodes;
+        this.timeout = timeout;
+        this.start = System.nanoTime();
+        this.blankNodes = count || maxBlankNodes > 0 ? new HashSet<>() : null;
+        this.quads = 0;
+        this.steps = 0;
+    }
+
+    @Override
+    public void tick() {
+
+        steps++;
+
+        if (maxSteps > 0 && steps > maxSteps) {
+            throw new IllegalStateException("Canonicalization step budget of " + maxSteps + " exceeded, " + report() + ".");
+        }
+
+        if (timeout > 0 && steps % CLOCK_STEP == 0 && elapsed() > timeout) {
+            throw new IllegalStateException("Canonicalization timeout of " + timeout + " ms exceeded, " + report() + ".");
+        }
+    }
+
+    /**
+     * Counts quads and distinct blank nodes passed to the consumer.
+     *
+     * @param consumer to receive quads
+     * @return a consumer failing when the blank node budget is exceeded, or
+     *         the given consumer if quads are not counted
+     */
+    public RdfQuadConsumer consumer(RdfQuadConsumer consumer) {
+
+        if (blankNodes == null) {
+            return consumer;
+        }
+
+        return new RdfQuadConsumer() {
+            @Override
+            public RdfQuadConsumer quad(String subject, String predicate, String object, String datatype, String language, String direction, String graph) throws RdfConsumerException {
+
+                quads++;
+
+                blank(subject);
+                if (datatype == null) {
+                    blank(object);
+                }
+                if (graph != null) {
+                    blank(graph);
+                }
+
+                consumer.quad(subject, predicate, object, datatype, language, direction, graph);
+                return this;
+            }
+        };
+    }
+
+    void blank(String resource) {
+        if (SplitCanon.isBlank(resource)
+                && blankNodes.add(resource)
+                && maxBlankNodes > 0
+                && blankNodes.size() > maxBlankNodes) {
+            throw new IllegalStateException("Blank node budget of " + maxBlankNodes + " exceeded, " + report() + ".");
+        }
+    }
+
+    long elapsed() {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    /**
+     * Describes the consumed budget.
+     */
+    public String report() {
+        return (blankNodes != null
+                ? quads + " quads, " + blankNodes.size() + " blank nodes, "
+                : "")
+                + steps + " canonicalization steps, "
+                + elapsed() + " ms";
+    }
+}
@@ -0,0 +1,339 @@
+package com.apicatalog.cli.canon;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import com.apicatalog.cli.codec.Digest;
+import com.apicatalog.rdf.api.RdfConsumerException;
+import com.apicatalog.rdf.api.RdfQuadConsumer;
+import com.apicatalog.rdf.canon.RdfCanon;
+import com.apicatalog.rdf.nquads.NQuadsReader;
+import com.apicatalog.rdf.nquads.NQuadsWriter;
+
+/**
+ * Re-canonicalizes a dataset extended by a delta using a persisted state,
+ * i.e. the canonical form split into sorted ground quads and sorted quads with
+ * canonical blank node labels.
+ * <p>
+ * Ground quads are never relabeled, delta ground quads are merged into the
+ * sorted state. Blank node labels depend only on quads with blank nodes, so
+ * the canonical labeling is reused as is unless the delta adds quads with
+ * blank nodes. A first-degree hash depends only on quads mentioning the node,
+ * but canonical labels are issued in the order of the hashes across the whole
+ * dataset. A delta touching one component can shift labels of unrelated
+ * components, hence quads with blank nodes are then canonicalized again as a
+ * whole, streamed into the canonicalization. Delta blank nodes labeled as in the
+ * canonical output, e.g. <code>_:c14n0</code>, refer to the existing nodes.
+ */
+public final class IncrementalCanon implements RdfQuadConsumer {
+
+    /**
+     * An update summary.
+     *
+     * @param ground    the number of ground quads
+     * @param blank     the number of quads with blank nodes
+     * @param relabeled <code>true</code> if quads with blank nodes have been
+     *                  canonicalized, <code>false</code> if the state labeling
+     *                  has been reused
+     * @param hash      digest of the canonical N-Quads computed with the RDFC-1.0
+     *                  hash algorithm
+     */
+    public record Update(int ground, int blank, boolean relabeled, byte[] hash) {
+    }
+
+    static final String HEADER = "@rdfc-state 1";
+
+    final String algorithm;
+
+    final String[] ground;
+    final String[] labeled;
+
+    final List<String> addedGround;
+    final List<String> addedBlank;
+
+    final StringWriter buffer;
+    final NQuadsWriter writer;
+
+    IncrementalCanon(String algorithm, String[] ground, String[] labeled) {
+        this.algorithm = algorithm;
+        this.ground = ground;
+        this.labeled = labeled;
+        this.addedGround = new ArrayList<>();
+        this.addedBlank = new ArrayList<>();
+        this.buffer = new StringWriter(256);
+        this.writer = new NQuadsWriter(buffer);
+    }
+
+    /**
+     * Creates an empty state, all consumed quads are canonicalized.
+     *
+     * @param algorithm RDFC-1.0 hash algorithm name, e.g. SHA-256
+     */
+    public static IncrementalCanon create(String algorithm) {
+        return new IncrementalCanon(algorithm, new String[0], new String[0]);
+    }
+
+    /**
+     * Loads a persisted state, quads are read as lines and are not parsed.
+     *
+     * @param state     a state file
+     * @param algorithm RDFC-1.0 hash algorithm name the state must be computed
+     *                  with
+     */
+    public static IncrementalCanon load(Path state, String algorithm) throws IOException {
+
+        try (final BufferedReader reader = Files.newBufferedReader(state, StandardCharsets.UTF_8)) {
+
+            final String header = reader.readLine();
+
+            if (header == null || !header.startsWith(HEADER + " ")) {
+                throw new IllegalArgumentException("Invalid canonicalization state [" + state + "], unknown format.");
+            }
+
+            final String[] fields = header.substring(HEADER.length() + 1).split(" ");
+
+            if (fields.length != 3) {
+                throw new IllegalArgumentException("Invalid canonicalization state [" + state + "], malformed header.");
+            }
+
+            if (!fields[0].equals(algorithm)) {
+                throw new IllegalArgumentException("Canonicalization state [" + state + "] has been computed with " + fields[0] + ", but " + algorithm + " is requested.");
+            }
+
+            try {
+                final String[] ground = lines(reader, Integer.parseInt(fields[1]), state);
+                final String[] labeled = lines(reader, Integer.parseInt(fields[2]), state);
+                return new IncrementalCanon(algorithm, ground, labeled);
+
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid canonicalization state [" + state + "], malformed header.", e);
+            }
+        }
+    }
+
+    @Override
+    public RdfQuadConsumer quad(String subject, String predicate, String object, String datatype, String language, String direction, String graph) throws RdfConsumerException {
+
+        final String quad = serialize(subject, predicate, object, datatype, language, direction, graph);
+
+        if (SplitCanon.isBlank(subject)
+                || (datatype == null && SplitCanon.isBlank(object))
+                || (graph != null && SplitCanon.isBlank(graph))) {
+            addedBlank.add(quad);
+
+        } else {
+            addedGround.add(quad);
+        }
+        return this;
+    }
+
+    /**
+     * Writes the canonical form of the state extended by all consumed quads and
+     * persists the new state.
+     *
+     * @param output to write N-Quads to
+     * @param state  a state file to write, replaced atomically
+     * @param canon  provides a new canonicalization instance
+     * @return an update summary
+     */
+    public Update write(Writer output, Path state, Supplier<RdfCanon> canon) throws Exception {
+
+        final String[] added = addedGround.toArray(String[]::new);
+        addedGround.clear();
+        Arrays.parallelSort(added, SplitCanon.CODE_POINT_ORDER);
+
+        final String[] nextGround = union(ground, added);
+
+        final String[] nextLabeled;
+
+        if (addedBlank.isEmpty()) {
+            nextLabeled = labeled;
+
+        } else {
+            final RdfCanon instance = canon.get();
+
+            // quads are parsed one by one straight into the canonicalization
+            new NQuadsReader(new LinesReader(Stream.concat(Arrays.stream(labeled), addedBlank.stream()).iterator()))
+                    .provide(instance);
+            addedBlank.clear();
+
+            final List<String> relabeled = new ArrayList<>();
+            instance.provide(new RdfQuadConsumer() {
+                @Override
+                public RdfQuadConsumer quad(String subject, String predicate, String object, String datatype, String language, String direction, String graph) throws RdfConsumerException {
+                    relabeled.add(serialize(subject, predicate, object, datatype, language, direction, graph));
+                    return this;
+                }
+            });
+
+            final String[] sorted = relabeled.toArray(String[]::new);
+            Arrays.parallelSort(sorted, SplitCanon.CODE_POINT_ORDER);
+            nextLabeled = union(sorted, new String[0]);
+        }
+
+        final List<String> blank = Arrays.asList(nextLabeled);
+
+        // the canonical form is hashed while it is written
+        final byte[] hash = ("SHA-384".equals(algorithm) ? Digest.SHA384 : Digest.SHA256)
+                .hash(writer -> SplitCanon.merge(nextGround, blank, tee(output, writer)));
+        output.flush();
+
+        save(state, nextGround, nextLabeled);
+
+        return new Update(
+                nextGround.length,
+                nextLabeled.length,
+                nextLabeled != labeled,
+                hash);
+    }
+
+    /**
+     * Reads N-Quads lines without concatenating them.
+     */
+    static final class LinesReader extends Reader {
+
+        final Iterator<String> lines;
+
+        String line;
+        int position;
+
+        LinesReader(Iterator<String> lines) {
+            this.lines = lines;
+            this.line = "";
+            this.position = 0;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) {
+
+            if (len == 0) {
+                return 0;
+            }
+
+            while (position == line.length()) {
+                if (!lines.hasNext()) {
+                    return -1;
+                }
+                line = lines.next();
+                position = 0;
+            }
+
+            final int count = Math.min(len, line.length() - position);
+            line.getChars(position, position + count, cbuf, off);
+            position += count;
+
+            return count;
+        }
+
+        @Override
+        public void close() {
+            // nothing to release
+        }
+    }
+
+    static Writer tee(Writer first, Writer second) {
+        return new Writer() {
+
+            @Override
+            public void write(String str) throws IOException {
+                first.write(str);
+                second.write(str);
+            }
+
+            @Override
+            public void write(char[] cbuf, int off, int len) throws IOException {
+                first.write(cbuf, off, len);
+                second.write(cbuf, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                first.flush();
+                second.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+
+    void save(Path state, String[] ground, String[] labeled) throws IOException {
+
+        final Path parent = state.toAbsolutePath().getParent();
+        final Path temp = Files.createTempFile(parent, state.getFileName().toString(), ".tmp");
+
+        try {
+            try (final Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writer.write(HEADER + " " + algorithm + " " + ground.length + " " + labeled.length + "\n");
+                for (final String quad : ground) {
+                    writer.write(quad);
+                }
+                for (final String quad : labeled) {
+                    writer.write(quad);
+                }
+            }
+            Files.move(temp, state, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Merges two sorted arrays of N-Quads lines, removing duplicates.
+     */
+    static String[] union(String[] a, String[] b) {
+
+        final String[] union = new String[a.length + b.length];
+
+        int i = 0;
+        int j = 0;
+        int k = 0;
+
+        while (i < a.length || j < b.length) {
+
+            final String next = j >= b.length || (i < a.length && SplitCanon.CODE_POINT_ORDER.compare(a[i], b[j]) <= 0)
+                    ? a[i++]
+                    : b[j++];
+
+            if (k == 0 || !next.equals(union[k - 1])) {
+                union[k++] = next;
+            }
+        }
+
+        return k == union.length ? union : Arrays.copyOf(union, k);
+    }
+
+    static String[] lines(BufferedReader reader, int count, Path state) throws IOException {
+        final String[] lines = new String[count];
+        for (int i = 0; i < count; i++) {
+            final String line = reader.readLine();
+            if (line == null) {
+                throw new IllegalArgumentException("Invalid canonicalization state [" + state + "], unexpected end of file.");
+            }
+            lines[i] = line + '\n';
+        }
+        return lines;
+    }
+
+    String serialize(String subject, String predicate, String object, String datatype, String language, String direction, String graph) throws RdfConsumerException {
+        buffer.getBuffer().setLength(0);
+        writer.quad(subject, predicate, object, datatype, language, direction, graph);
+        return buffer.toString();
+    }
+}
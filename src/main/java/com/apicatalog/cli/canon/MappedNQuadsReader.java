@@ -0,0 +1,425 @@
+package com.apicatalog.cli.canon;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import com.apicatalog.cli.metrics.Metrics;
+import com.apicatalog.rdf.api.RdfConsumerException;
+import com.apicatalog.rdf.api.RdfQuadConsumer;
+
+/**
+ * Reads an N-Quads file directly from a memory-mapped buffer, quads are passed
+ * to a consumer without building an intermediate dataset.
+ */
+public final class MappedNQuadsReader {
+
+    /** The largest region mapped at once, must hold at least one line. */
+    static final int SEGMENT_SIZE = 1 << 28;
+
+    static final String XSD_STRING = "http://www.w3.org/2001/XMLSchema#string";
+    static final String RDF_LANG_STRING = "http://www.w3.org/1999/02/22-rdf-syntax-ns#langString";
+
+    final int segmentSize;
+
+    MappedByteBuffer buffer;
+    int position;
+    int limit;
+
+    long line;
+
+    byte[] scratch;
+    int length;
+
+    MappedNQuadsReader(int segmentSize) {
+        this.segmentSize = segmentSize;
+        this.line = 0;
+        this.scratch = new byte[256];
+        this.length = 0;
+    }
+
+    /**
+     * Reads all quads from the file.
+     *
+     * @param path     an N-Quads file
+     * @param consumer to receive quads
+     * @throws IOException              if the file cannot be read
+     * @throws RdfConsumerException     if the consumer fails
+     * @throws IllegalArgumentException if the file is not a valid N-Quads
+     *                                  document
+     */
+    public static void read(Path path, RdfQuadConsumer consumer) throws IOException, RdfConsumerException {
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            new MappedNQuadsReader(SEGMENT_SIZE).read(channel, consumer);
+        }
+    }
+
+    void read(FileChannel channel, RdfQuadConsumer consumer) throws IOException, RdfConsumerException {
+
+        final long size = channel.size();
+
+        Metrics.read(size);
+
+        long offset = 0;
+
+        while (offset < size) {
+
+            final long remaining = size - offset;
+            final boolean last = remaining <= segmentSize;
+
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, last ? remaining : segmentSize);
+            limit = buffer.limit();
+
+            if (!last) {
+                // parse complete lines only, the rest is mapped again with the next segment
+                int end = limit - 1;
+                while (end >= 0 && buffer.get(end) != '\n' && buffer.get(end) != '\r') {
+                    end--;
+                }
+                if (end < 0) {
+                    line++;
+                    throw error("The line exceeds " + segmentSize + " bytes");
+                }
+                limit = end + 1;
+            }
+
+            position = 0;
+
+            while (position < limit) {
+                statement(consumer);
+            }
+
+            offset += limit;
+        }
+    }
+
+    void statement(RdfQuadConsumer consumer) throws RdfConsumerException {
+
+        line++;
+
+        skipWhitespace();
+
+        if (isEndOfLine()) {
+            skipLine();
+            return;
+        }
+
+        final String subject = resource();
+        skipWhitespace();
+
+        final String predicate = iri();
+        skipWhitespace();
+
+        String object;
+        String datatype = null;
+        String language = null;
+
+        if (peek() == '"') {
+            object = string();
+
+            if (peek() == '^') {
+                position++;
+                expect('^');
+                datatype = iri();
+
+            } else if (peek() == '@') {
+                position++;
+                // a direction suffix, e.g. en--ltr, is kept as a part of the tag as by NQuadsReader
+                language = langTag();
+                datatype = RDF_LANG_STRING;
+
+            } else {
+                datatype = XSD_STRING;
+            }
+
+        } else {
+            object = resource();
+        }
+
+        skipWhitespace();
+
+        String graph = null;
+
+        if (peek() != '.') {
+            graph = resource();
+            skipWhitespace();
+        }
+
+        expect('.');
+        skipWhitespace();
+
+        if (!isEndOfLine()) {
+            throw error("Unexpected character '" + (char) peek() + "' after the end of the statement");
+        }
+        skipLine();
+
+        consumer.quad(subject, predicate, object, datatype, language, null, graph);
+    }
+
+    String resource() {
+        switch (peek()) {
+        case '<':
+            return iri();
+        case '_':
+            return blankNode();
+        default:
+            throw error("An IRI or a blank node expected but got '" + (char) peek() + "'");
+        }
+    }
+
+    String iri() {
+        expect('<');
+        length = 0;
+        while (true) {
+            final int ch = next();
+            if (ch == '>') {
+                return text();
+            }
+            if (ch == '\\') {
+                final int type = next();
+                if (type != 'u' && type != 'U') {
+                    throw error("Invalid IRI escape sequence '\\" + (char) type + "'");
+                }
+                escape(type == 'u' ? 4 : 8);
+
+            } else if (ch == '\n' || ch == '\r') {
+                throw error("Unterminated IRI");
+
+            } else {
+                append(ch);
+            }
+        }
+    }
+
+    String blankNode() {
+        expect('_');
+        expect(':');
+
+        final int start = position - 2;
+        int end = position;
+
+        while (end < limit) {
+            final int ch = buffer.get(end) & 0xff;
+            if (ch == ' ' || ch == '\t' || ch == '\n' || ch == '\r' || ch == '<' || ch == '"' || ch == '#') {
+                break;
+            }
+            end++;
+        }
+
+        // a label cannot end with a period, it terminates the statement
+        while (end > position && buffer.get(end - 1) == '.') {
+            end--;
+        }
+
+        if (end == position) {
+            throw error("Empty blank node label");
+        }
+
+        position = end;
+
+        length = 0;
+        for (int i = start; i < end; i++) {
+            append(buffer.get(i) & 0xff);
+        }
+        return text();
+    }
+
+    String string() {
+        expect('"');
+        length = 0;
+        while (true) {
+            final int ch = next();
+            if (ch == '"') {
+                return text();
+            }
+            if (ch == '\\') {
+                final int escaped = next();
+                switch (escaped) {
+                case 't':
+                    append('\t');
+                    break;
+                case 'b':
+                    append('\b');
+                    break;
+                case 'n':
+                    append('\n');
+                    break;
+                case 'r':
+                    append('\r');
+                    break;
+                case 'f':
+                    append('\f');
+                    break;
+                case '"':
+                case '\'':
+                case '\\':
+                    append(escaped);
+                    break;
+                case 'u':
+                    escape(4);
+                    break;
+                case 'U':
+                    escape(8);
+                    break;
+                default:
+                    throw error("Invalid string escape sequence '\\" + (char) escaped + "'");
+                }
+
+            } else if (ch == '\n' || ch == '\r') {
+                throw error("Unterminated string literal");
+
+            } else {
+                append(ch);
+            }
+        }
+    }
+
+    String langTag() {
+        length = 0;
+        while (position < limit) {
+            final int ch = buffer.get(position) & 0xff;
+            if ((ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9') || ch == '-') {
+                append(ch);
+                position++;
+                continue;
+            }
+            break;
+        }
+        if (length == 0) {
+            throw error("Empty language tag");
+        }
+        return text();
+    }
+
+    int hex(int digits) {
+        int value = 0;
+        for (int i = 0; i < digits; i++) {
+            final int digit = Character.digit(next(), 16);
+            if (digit < 0) {
+                throw error("Invalid escape sequence, hexadecimal digit expected");
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
+    /**
+     * Appends an escaped code point, a surrogate pair escaped as two
+     * <code>\\u</code> sequences is combined into a single code point.
+     */
+    void escape(int digits) {
+
+        int cp = hex(digits);
+
+        if (digits == 4
+                && Character.isHighSurrogate((char) cp)
+                && position + 1 < limit
+                && buffer.get(position) == '\\'
+                && buffer.get(position + 1) == 'u') {
+
+            position += 2;
+            final int low = hex(4);
+
+            if (!Character.isLowSurrogate((char) low)) {
+                throw error("Invalid escape sequence, a low surrogate expected after \\u" + Integer.toHexString(cp).toUpperCase());
+            }
+            cp = Character.toCodePoint((char) cp, (char) low);
+        }
+
+        if (cp >= Character.MIN_SURROGATE && cp <= Character.MAX_SURROGATE) {
+            throw error("Invalid escape sequence, unpaired surrogate \\u" + Integer.toHexString(cp).toUpperCase());
+        }
+
+        codePoint(cp);
+    }
+
+    void codePoint(int cp) {
+        if (cp < 0x80) {
+            append(cp);
+
+        } else if (cp < 0x800) {
+            append(0xc0 | (cp >> 6));
+            append(0x80 | (cp & 0x3f));
+
+        } else if (cp < 0x10000) {
+            append(0xe0 | (cp >> 12));
+            append(0x80 | ((cp >> 6) & 0x3f));
+            append(0x80 | (cp & 0x3f));
+
+        } else if (cp <= Character.MAX_CODE_POINT) {
+            append(0xf0 | (cp >> 18));
+            append(0x80 | ((cp >> 12) & 0x3f));
+            append(0x80 | ((cp >> 6) & 0x3f));
+            append(0x80 | (cp & 0x3f));
+
+        } else {
+            throw error("Invalid code point " + Integer.toHexString(cp));
+        }
+    }
+
+    void append(int ch) {
+        if (length == scratch.length) {
+            scratch = Arrays.copyOf(scratch, length * 2);
+        }
+        scratch[length++] = (byte) ch;
+    }
+
+    String text() {
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    int peek() {
+        return position < limit ? buffer.get(position) & 0xff : -1;
+    }
+
+    int next() {
+        if (position >= limit) {
+            throw error("Unexpected end of input");
+        }
+        return buffer.get(position++) & 0xff;
+    }
+
+    void expect(int ch) {
+        if (next() != ch) {
+            throw error("'" + (char) ch + "' expected");
+        }
+    }
+
+    void skipWhitespace() {
+        while (position < limit) {
+            final byte ch = buffer.get(position);
+            if (ch != ' ' && ch != '\t') {
+                return;
+            }
+            position++;
+        }
+    }
+
+    boolean isEndOfLine() {
+        final int ch = peek();
+        return ch == -1 || ch == '\n' || ch == '\r' || ch == '#';
+    }
+
+    void skipLine() {
+        while (position < limit) {
+            final byte ch = buffer.get(position++);
+            if (ch == '\n') {
+                return;
+            }
+            if (ch == '\r') {
+                if (position < limit && buffer.get(position) == '\n') {
+                    position++;
+                }
+                return;
+            }
+        }
+    }
+
+    IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Invalid N-Quads document at line " + line + ". " + message + ".");
+    }
+}
@@ -0,0 +1,167 @@
+package com.apicatalog.cli.canon;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import com.apicatalog.rdf.api.RdfConsumerException;
+import com.apicatalog.rdf.api.RdfQuadConsumer;
+import com.apicatalog.rdf.canon.RdfCanon;
+import com.apicatalog.rdf.nquads.NQuadsWriter;
+
+/**
+ * Canonicalizes a dataset by passing only quads with blank nodes to
+ * {@link RdfCanon}. Ground quads are not affected by blank node labeling, they
+ * are serialized directly, sorted in parallel and merged with the canonical
+ * output.
+ */
+public final class SplitCanon implements RdfQuadConsumer {
+
+    static final long PROGRESS_STEP = 1_000_000;
+
+    /**
+     * Canonical N-Quads are sorted in Unicode code point order.
+     */
+    public static final Comparator<String> CODE_POINT_ORDER = (a, b) -> {
+        final int length = Math.min(a.length(), b.length());
+        for (int i = 0; i < length; i++) {
+            final char x = a.charAt(i);
+            final char y = b.charAt(i);
+            if (x != y) {
+                // surrogates encode code points above all other BMP characters
+                if (Character.isSurrogate(x) != Character.isSurrogate(y)) {
+                    return Character.isSurrogate(x) ? 1 : -1;
+                }
+                return x - y;
+            }
+        }
+        return a.length() - b.length();
+    };
+
+    final RdfCanon canon;
+
+    final PrintWriter progress;
+
+    final List<String> ground;
+
+    final StringWriter buffer;
+    final NQuadsWriter writer;
+
+    long blank;
+
+    public SplitCanon(RdfCanon canon, PrintWriter progress) {
+        this.canon = canon;
+        this.progress = progress;
+        this.ground = new ArrayList<>();
+        this.buffer = new StringWriter(256);
+        this.writer = new NQuadsWriter(buffer);
+        this.blank = 0;
+    }
+
+    @Override
+    public RdfQuadConsumer quad(String subject, String predicate, String object, String datatype, String language, String direction, String graph) throws RdfConsumerException {
+
+        if (isBlank(subject)
+                || (datatype == null && isBlank(object))
+                || (graph != null && isBlank(graph))) {
+            canon.quad(subject, predicate, object, datatype, language, direction, graph);
+            blank++;
+
+        } else {
+            ground.add(serialize(subject, predicate, object, datatype, language, direction, graph));
+        }
+
+        if (progress != null && (ground.size() + blank) % PROGRESS_STEP == 0) {
+            progress.println("Read " + (ground.size() + blank) + " quads.");
+            progress.flush();
+        }
+        return this;
+    }
+
+    /**
+     * Writes the canonical form of all consumed quads.
+     *
+     * @param output to write N-Quads to
+     * @throws RdfConsumerException if canonicalization fails
+     * @throws IOException          if writing fails
+     */
+    public void write(Writer output) throws RdfConsumerException, IOException {
+
+        report("Read " + (ground.size() + blank) + " quads, " + ground.size() + " ground, " + blank + " with blank nodes.");
+
+        long start = System.currentTimeMillis();
+
+        final String[] sorted = ground.toArray(String[]::new);
+        ground.clear();
+        Arrays.parallelSort(sorted, CODE_POINT_ORDER);
+
+        report("Sorted " + sorted.length + " ground quads in " + (System.currentTimeMillis() - start) + " ms.");
+
+        start = System.currentTimeMillis();
+
+        final List<String> labeled = new ArrayList<>((int) blank);
+        canon.provide(new RdfQuadConsumer() {
+            @Override
+            public RdfQuadConsumer quad(String subject, String predicate, String object, String datatype, String language, String direction, String graph) throws RdfConsumerException {
+                labeled.add(serialize(subject, predicate, object, datatype, language, direction, graph));
+                return this;
+            }
+        });
+
+        report("Canonicalized " + blank + " quads with blank nodes in " + (System.currentTimeMillis() - start) + " ms.");
+
+        merge(sorted, labeled, output);
+        output.flush();
+    }
+
+    /**
+     * Merges two sorted lists of N-Quads lines, removing duplicates.
+     */
+    static void merge(String[] ground, List<String> labeled, Writer output) throws IOException {
+
+        int i = 0;
+        int j = 0;
+
+        String last = null;
+
+        while (i < ground.length || j < labeled.size()) {
+
+            final String next;
+
+            if (j >= labeled.size()
+                    || (i < ground.length && CODE_POINT_ORDER.compare(ground[i], labeled.get(j)) <= 0)) {
+                next = ground[i++];
+
+            } else {
+                next = labeled.get(j++);
+            }
+
+            if (!next.equals(last)) {
+                output.write(next);
+                last = next;
+            }
+        }
+    }
+
+    String serialize(String subject, String predicate, String object, String datatype, String language, String direction, String graph) throws RdfConsumerException {
+        buffer.getBuffer().setLength(0);
+        writer.quad(subject, predicate, object, datatype, language, direction, graph);
+        return buffer.toString();
+    }
+
+    void report(String message) {
+        if (progress != null) {
+            progress.println(message);
+            progress.flush();
+        }
+    }
+
+    static boolean isBlank(String resource) {
+        return resource.startsWith("_:");
+    }
+}
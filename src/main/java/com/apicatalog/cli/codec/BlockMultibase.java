@@ -0,0 +1,198 @@
+package com.apicatalog.cli.codec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+
+import com.apicatalog.multibase.Multibase;
+
+/**
+ * Streams block-aligned multibase encodings (base16, base32 and base64
+ * variants) in fixed-size chunks. A chunk spans whole blocks, so it is encoded
+ * or decoded independently of the rest of the input.
+ */
+public final class BlockMultibase {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    @FunctionalInterface
+    public interface Output {
+        void write(byte[] data) throws IOException;
+    }
+
+    final Multibase base;
+
+    /** Input bytes per block. */
+    final int bytes;
+
+    /** Encoded characters per block. */
+    final int chars;
+
+    BlockMultibase(Multibase base, int bytes, int chars) {
+        this.base = base;
+        this.bytes = bytes;
+        this.chars = chars;
+    }
+
+    public static Optional<BlockMultibase> of(Multibase base) {
+        return switch (base.length()) {
+        case 16 -> Optional.of(new BlockMultibase(base, 1, 2));
+        case 32 -> Optional.of(new BlockMultibase(base, 5, 8));
+        case 64 -> Optional.of(new BlockMultibase(base, 3, 4));
+        default -> Optional.empty();
+        };
+    }
+
+    /**
+     * Skips leading whitespace and returns the multibase prefix, or
+     * <code>-1</code> if the input is empty. The buffer is left in read mode
+     * positioned after the prefix.
+     */
+    public static int prefix(ReadableByteChannel input, ByteBuffer buffer) throws IOException {
+        buffer.clear().flip();
+        while (true) {
+            while (buffer.hasRemaining()) {
+                final int ch = buffer.get() & 0xff;
+                if (!Character.isWhitespace(ch)) {
+                    return ch;
+                }
+            }
+            buffer.clear();
+            if (input.read(buffer) == -1) {
+                buffer.flip();
+                return -1;
+            }
+            buffer.flip();
+        }
+    }
+
+    public static ByteBuffer buffer() {
+        return ByteBuffer.allocate(BUFFER_SIZE);
+    }
+
+    public Encoder encoder(WritableByteChannel output) {
+        return new Encoder(output);
+    }
+
+    /**
+     * Encodes all remaining input.
+     */
+    public void encode(ReadableByteChannel input, WritableByteChannel output) throws IOException {
+        final Encoder encoder = encoder(output);
+        final ByteBuffer buffer = buffer();
+        while (input.read(buffer) != -1) {
+            buffer.flip();
+            encoder.write(buffer.array(), buffer.position(), buffer.remaining());
+            buffer.clear();
+        }
+        encoder.close();
+    }
+
+    /**
+     * Decodes the remaining content of the buffer followed by the rest of the
+     * input, the multibase prefix has already been consumed. Whitespace is
+     * ignored.
+     */
+    public void decode(ByteBuffer buffer, ReadableByteChannel input, Output output) throws IOException {
+
+        final char[] block = new char[BUFFER_SIZE / chars * chars];
+        int length = 0;
+
+        while (true) {
+            while (buffer.hasRemaining()) {
+                final int ch = buffer.get() & 0xff;
+                if (Character.isWhitespace(ch)) {
+                    continue;
+                }
+                block[length++] = (char) ch;
+                if (length == block.length) {
+                    output.write(decode(block, length));
+                    length = 0;
+                }
+            }
+            buffer.clear();
+            if (input.read(buffer) == -1) {
+                break;
+            }
+            buffer.flip();
+        }
+
+        if (length > 0) {
+            output.write(decode(block, length));
+        }
+    }
+
+    byte[] decode(char[] block, int length) {
+        return base.decode(base.prefix() + new String(block, 0, length));
+    }
+
+    public Multibase base() {
+        return base;
+    }
+
+    public final class Encoder {
+
+        final WritableByteChannel output;
+
+        final byte[] block;
+        int length;
+
+        boolean prefix;
+
+        Encoder(WritableByteChannel output) {
+            this.output = output;
+            this.block = new byte[BUFFER_SIZE / bytes * bytes];
+            this.length = 0;
+            this.prefix = false;
+        }
+
+        public void write(byte[] data, int offset, int count) throws IOException {
+            writePrefix();
+            while (count > 0) {
+                final int n = Math.min(count, block.length - length);
+                System.arraycopy(data, offset, block, length, n);
+                length += n;
+                offset += n;
+                count -= n;
+                if (length == block.length) {
+                    encode(block);
+                    length = 0;
+                }
+            }
+        }
+
+        /**
+         * Encodes the last, possibly padded, chunk.
+         */
+        public void close() throws IOException {
+            writePrefix();
+            if (length > 0) {
+                encode(Arrays.copyOf(block, length));
+                length = 0;
+            }
+        }
+
+        void encode(byte[] data) throws IOException {
+            final String encoded = base.encode(data);
+            // skip the prefix, it has been written once
+            BlockMultibase.write(output, ByteBuffer.wrap(encoded.substring(1).getBytes(StandardCharsets.US_ASCII)));
+        }
+
+        void writePrefix() throws IOException {
+            if (!prefix) {
+                BlockMultibase.write(output, ByteBuffer.wrap(String.valueOf(base.prefix()).getBytes(StandardCharsets.US_ASCII)));
+                prefix = true;
+            }
+        }
+    }
+
+    public static void write(WritableByteChannel output, ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            output.write(data);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.apicatalog.cli.codec;
+
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Collects CBOR-LD compression statistics: payload sizes, encode and decode
+ * latency, and text strings left uncompressed in the encoded output, i.e.
+ * terms and values not covered by contexts or dictionaries.
+ */
+public final class CompressionStats {
+
+    record Sample(long json, long jcs, long cbor, long encode, long decode) {
+    }
+
+    final List<Sample> samples;
+    final Map<String, Long> strings;
+    long failed;
+
+    public CompressionStats() {
+        this.samples = new ArrayList<>();
+        this.strings = new HashMap<>();
+        this.failed = 0;
+    }
+
+    /**
+     * Adds a single document sample.
+     *
+     * @param json   minified JSON size in bytes
+     * @param jcs    canonical JSON (JCS) size in bytes
+     * @param cbor   the encoded CBOR-LD payload
+     * @param encode encoding time in nanoseconds
+     * @param decode decoding time in nanoseconds
+     */
+    public synchronized void add(long json, long jcs, byte[] cbor, long encode, long decode) {
+        strings(cbor, 0, string -> strings.merge(string, 1L, Long::sum));
+        samples.add(new Sample(json, jcs, cbor.length, encode, decode));
+    }
+
+    public synchronized void fail() {
+        failed++;
+    }
+
+    /**
+     * Prints a report.
+     *
+     * @param out a report output
+     * @param top the maximal number of uncompressed strings to list
+     */
+    public synchronized void print(PrintWriter out, int top) {
+
+        out.printf("%-18s %d, %d failed%n", "Documents", samples.size(), failed);
+
+        if (samples.isEmpty()) {
+            out.flush();
+            return;
+        }
+
+        out.println();
+        out.printf("%-18s %12s %12s %12s %12s%n", "Size (bytes)", "total", "avg", "min", "max");
+        size(out, "JSON", Sample::json);
+        size(out, "JCS", Sample::jcs);
+        size(out, "CBOR-LD", Sample::cbor);
+
+        final long json = sum(Sample::json);
+        final long jcs = sum(Sample::jcs);
+        final long cbor = sum(Sample::cbor);
+
+        out.println();
+        out.printf("%-18s %.1f%% of JSON, %.1f%% of JCS%n", "CBOR-LD ratio",
+                json > 0 ? cbor * 100d / json : 0d,
+                jcs > 0 ? cbor * 100d / jcs : 0d);
+
+        out.println();
+        out.printf("%-18s %12s %12s %12s %12s %12s%n", "Latency (us)", "p50", "p90", "p99", "max", "docs/s");
+        latency(out, "Encode", Sample::encode);
+        latency(out, "Decode", Sample::decode);
+
+        out.println();
+        out.printf("%-18s %d distinct, %d total%n", "Uncompressed", strings.size(),
+                strings.values().stream().mapToLong(Long::longValue).sum());
+
+        strings.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(top)
+                .forEach(e -> out.printf("%18d %s%n", e.getValue(), e.getKey()));
+
+        out.flush();
+    }
+
+    void size(PrintWriter out, String label, ToLongFunction<Sample> value) {
+        final long[] values = sorted(value);
+        out.printf("%-18s %12d %12d %12d %12d%n",
+                label,
+                sum(value),
+                sum(value) / values.length,
+                values[0],
+                values[values.length - 1]);
+    }
+
+    void latency(PrintWriter out, String label, ToLongFunction<Sample> value) {
+        final long[] values = sorted(value);
+        final long total = sum(value);
+        out.printf("%-18s %12d %12d %12d %12d %12.1f%n",
+                label,
+                percentile(values, 0.5) / 1000,
+                percentile(values, 0.9) / 1000,
+                percentile(values, 0.99) / 1000,
+                values[values.length - 1] / 1000,
+                total > 0 ? values.length * 1_000_000_000d / total : 0d);
+    }
+
+    long sum(ToLongFunction<Sample> value) {
+        return samples.stream().mapToLong(value).sum();
+    }
+
+    long[] sorted(ToLongFunction<Sample> value) {
+        final long[] values = samples.stream().mapToLong(value).toArray();
+        Arrays.sort(values);
+        return values;
+    }
+
+    static long percentile(long[] sorted, double quantile) {
+        return sorted[Math.max(0, Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1))];
+    }
+
+    /**
+     * Walks a single CBOR data item and reports all text strings, map keys
+     * included.
+     *
+     * @param data    CBOR data
+     * @param offset  the data item offset
+     * @param strings a text string consumer
+     * @return the offset following the data item
+     */
+    static int strings(byte[] data, int offset, Consumer<String> strings) {
+
+        if (offset >= data.length) {
+            throw new IllegalArgumentException("Invalid CBOR data, unexpected end at " + offset + ".");
+        }
+
+        final int major = (data[offset] & 0xff) >>> 5;
+        final int info = data[offset] & 0x1f;
+        offset++;
+
+        // indefinite length strings, arrays and maps terminated by a break
+        if (info == 31 && major >= 2 && major <= 5) {
+            while (offset < data.length && (data[offset] & 0xff) != 0xff) {
+                offset = strings(data, offset, strings);
+                if (major == 5) {
+                    offset = strings(data, offset, strings);
+                }
+            }
+            return offset + 1;
+        }
+
+        final long value;
+
+        if (info < 24) {
+            value = info;
+
+        } else if (info <= 27) {
+            final int size = 1 << (info - 24);
+            long argument = 0;
+            for (int i = 0; i < size; i++) {
+                argument = (argument << 8) | (data[offset + i] & 0xff);
+            }
+            value = argument;
+            offset += size;
+
+        } else if (major == 7 && info == 31) {
+            return offset;
+
+        } else {
+            throw new IllegalArgumentException("Invalid CBOR data, reserved additional information " + info + " at " + (offset - 1) + ".");
+        }
+
+        switch (major) {
+        case 2:
+            return offset + Math.toIntExact(value);
+
+        case 3:
+            strings.accept(new String(data, offset, Math.toIntExact(value), StandardCharsets.UTF_8));
+            return offset + Math.toIntExact(value);
+
+        case 4:
+            for (long i = 0; i < value; i++) {
+                offset = strings(data, offset, strings);
+            }
+            return offset;
+
+        case 5:
+            for (long i = 0; i < 2 * value; i++) {
+                offset = strings(data, offset, strings);
+            }
+            return offset;
+
+        case 6:
+            // a tag followed by the tagged item
+            return strings(data, offset, strings);
+
+        default:
+            return offset;
+        }
+    }
+}
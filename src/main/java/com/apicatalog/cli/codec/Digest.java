@@ -0,0 +1,82 @@
+package com.apicatalog.cli.codec;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import com.apicatalog.base.Base16;
+import com.apicatalog.multibase.Multibase;
+
+/**
+ * Document digests computed over a text written as UTF-8, the text is hashed
+ * while it is written and is never held in memory.
+ */
+public enum Digest {
+
+    SHA256("SHA-256", null),
+    SHA384("SHA-384", null),
+    // sha2-256 multihash, i.e. 0x12 code and 32 bytes length header
+    MULTIHASH("SHA-256", new byte[] { 0x12, 0x20 });
+
+    @FunctionalInterface
+    public interface Source {
+        void write(Writer writer) throws Exception;
+    }
+
+    final String algorithm;
+    final byte[] header;
+
+    Digest(String algorithm, byte[] header) {
+        this.algorithm = algorithm;
+        this.header = header;
+    }
+
+    /**
+     * Hashes the text written by the source.
+     *
+     * @param source writes the text to hash
+     * @return the digest, prefixed with a multihash header if applicable
+     */
+    public byte[] hash(Source source) throws Exception {
+
+        final MessageDigest md = create();
+
+        try (final Writer writer = new OutputStreamWriter(new DigestOutputStream(OutputStream.nullOutputStream(), md), StandardCharsets.UTF_8)) {
+            source.write(writer);
+        }
+
+        final byte[] hash = md.digest();
+
+        if (header == null) {
+            return hash;
+        }
+
+        final byte[] multihash = new byte[header.length + hash.length];
+        System.arraycopy(header, 0, multihash, 0, header.length);
+        System.arraycopy(hash, 0, multihash, header.length, hash.length);
+        return multihash;
+    }
+
+    MessageDigest create() {
+        try {
+            return MessageDigest.getInstance(algorithm);
+
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Encodes the digest using the multibase, or lower case hexadecimal if the
+     * base is not set.
+     */
+    public static String encode(byte[] digest, Multibase base) {
+        return base != null
+                ? base.encode(digest)
+                : Base16.encode(digest, Base16.ALPHABET_LOWER);
+    }
+}
@@ -0,0 +1,104 @@
+package com.apicatalog.cli.codec;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import com.apicatalog.multibase.Multibase;
+import com.apicatalog.multicodec.Multicodec;
+import com.apicatalog.multicodec.MulticodecDecoder;
+
+/**
+ * Constant-time lookups of codecs by name, code and varint header, and of
+ * bases by name. Built once from the provided registries.
+ */
+public final class MulticodecIndex {
+
+    static final MulticodecIndex INSTANCE = new MulticodecIndex(MulticodecDecoder.newInstance(), Multibase.provided());
+
+    /**
+     * A trie over varint header bytes. Varints are prefix-free, the first node
+     * holding a codec is the only match.
+     */
+    static final class Node {
+        Multicodec codec;
+        Node[] next;
+    }
+
+    final Map<String, Multicodec> names;
+    final Map<Long, Multicodec> codes;
+    final Node headers;
+
+    final Map<String, Multibase> bases;
+
+    MulticodecIndex(MulticodecDecoder decoder, Multibase[] bases) {
+
+        this.names = new HashMap<>();
+        this.codes = new HashMap<>();
+        this.headers = new Node();
+
+        for (final Multicodec codec : decoder.getRegistry().codecs().values()) {
+            final long code = codec.code();
+            names.put(codec.name(), codec);
+            codes.put(code, codec);
+            add(codec);
+        }
+
+        this.bases = new HashMap<>();
+        for (final Multibase base : bases) {
+            this.bases.put(base.name(), base);
+        }
+    }
+
+    public static MulticodecIndex getInstance() {
+        return INSTANCE;
+    }
+
+    public Optional<Multicodec> codec(String name) {
+        return Optional.ofNullable(names.get(name));
+    }
+
+    public Optional<Multicodec> codec(long code) {
+        return Optional.ofNullable(codes.get(code));
+    }
+
+    /**
+     * Finds a codec by the varint header the encoded data starts with.
+     */
+    public Optional<Multicodec> codec(byte[] encoded) {
+        Node node = headers;
+        for (final byte b : encoded) {
+            if (node.next == null) {
+                break;
+            }
+            node = node.next[b & 0xff];
+            if (node == null) {
+                break;
+            }
+            if (node.codec != null) {
+                return Optional.of(node.codec);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public Optional<Multibase> base(String name) {
+        return Optional.ofNullable(bases.get(name));
+    }
+
+    void add(Multicodec codec) {
+        Node node = headers;
+        for (final byte b : codec.varint()) {
+            if (node.next == null) {
+                node.next = new Node[256];
+            }
+            Node next = node.next[b & 0xff];
+            if (next == null) {
+                next = new Node();
+                node.next[b & 0xff] = next;
+            }
+            node = next;
+        }
+        node.codec = codec;
+    }
+}
@@ -0,0 +1,209 @@
+package com.apicatalog.cli.command;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.concurrent.Callable;
+
+import com.apicatalog.cli.loader.FileCache;
+import com.apicatalog.cli.loader.Loaders;
+import com.apicatalog.cli.mixin.CommandOptions;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.Spec;
+
+@Command(name = "cache", mixinStandardHelpOptions = false, description = "List, prune, or preload cached remote documents, or show processing cache statistics.", sortOptions = true, descriptionHeading = "%n", parameterListHeading = "%nParameters:%n", optionListHeading = "%nOptions:%n", commandListHeading = "%nCommands:%n", subcommands = {
+        CacheCmd.ListCmd.class,
+        CacheCmd.PruneCmd.class,
+        CacheCmd.PreloadCmd.class,
+        CacheCmd.StatsCmd.class,
+})
+public final class CacheCmd implements Callable<Integer> {
+
+    @Mixin
+    CommandOptions options;
+
+    @Spec
+    CommandSpec spec;
+
+    private CacheCmd() {
+    }
+
+    @Override
+    public Integer call() throws Exception {
+        spec.commandLine().usage(spec.commandLine().getOut());
+        return spec.exitCodeOnUsageHelp();
+    }
+
+    @Command(name = "list", mixinStandardHelpOptions = false, description = "List cached documents.", sortOptions = true, descriptionHeading = "%n", parameterListHeading = "%nParameters:%n", optionListHeading = "%nOptions:%n")
+    static final class ListCmd implements Callable<Integer> {
+
+        @Mixin
+        CommandOptions options;
+
+        @Spec
+        CommandSpec spec;
+
+        private ListCmd() {
+        }
+
+        @Override
+        public Integer call() throws Exception {
+
+            final FileCache cache = Loaders.cacheLoader().cache();
+            final Instant now = Instant.now();
+
+            var entries = cache.list();
+            var writer = spec.commandLine().getOut();
+
+            writer.println("Cached documents: " + entries.size() + " total, "
+                    + entries.stream().mapToLong(FileCache.Entry::size).sum() + " bytes in " + cache.root());
+            writer.println();
+            writer.printf("%-10s %-8s %-20s %s", "Size", "Status", "Accessed", "URL");
+            writer.println();
+            writer.println("---------- -------- -------------------- ---");
+
+            entries.stream()
+                    .sorted(Comparator.comparing(FileCache.Entry::url))
+                    .forEach(entry -> {
+                        writer.printf("%10d %-8s %-20s %s",
+                                entry.size(),
+                                entry.isExpired(now) ? "expired" : "fresh",
+                                entry.accessed().toString().substring(0, 19),
+                                entry.url());
+                        writer.println();
+                    });
+
+            writer.flush();
+            return spec.exitCodeOnSuccess();
+        }
+    }
+
+    @Command(name = "stats", mixinStandardHelpOptions = false, description = "Show processing cache statistics, e.g. of a running daemon.", sortOptions = true, descriptionHeading = "%n", parameterListHeading = "%nParameters:%n", optionListHeading = "%nOptions:%n")
+    static final class StatsCmd implements Callable<Integer> {
+
+        @Mixin
+        CommandOptions options;
+
+        @Spec
+        CommandSpec spec;
+
+        private StatsCmd() {
+        }
+
+        @Override
+        public Integer call() throws Exception {
+
+            var writer = spec.commandLine().getOut();
+
+            writer.printf("%-12s%s", "Contexts:", Loaders.CONTEXTS);
+            writer.println();
+            writer.printf("%-12s%s", "Documents:", Loaders.DOCUMENTS);
+            writer.println();
+
+            writer.flush();
+            return spec.exitCodeOnSuccess();
+        }
+    }
+
+    @Command(name = "prune", mixinStandardHelpOptions = false, description = "Remove cached documents.", sortOptions = true, descriptionHeading = "%n", parameterListHeading = "%nParameters:%n", optionListHeading = "%nOptions:%n")
+    static final class PruneCmd implements Callable<Integer> {
+
+        @Option(names = { "--all" }, description = "Remove all cached documents.")
+        boolean all = false;
+
+        @Option(names = { "--unused" }, description = "Remove documents not accessed for the given period, e.g. P30D, PT12H.", paramLabel = "<duration>")
+        String unused = null;
+
+        @Option(names = { "--max-size" }, description = "Remove least recently used documents until the cache size is below the limit.", paramLabel = "<bytes>")
+        Long maxSize = null;
+
+        @Parameters(arity = "0..*", description = "Document URIs to remove.", paramLabel = "<uri>")
+        URI[] uris = null;
+
+        @Mixin
+        CommandOptions options;
+
+        @Spec
+        CommandSpec spec;
+
+        private PruneCmd() {
+        }
+
+        @Override
+        public Integer call() throws Exception {
+
+            final FileCache cache = Loaders.cacheLoader().cache();
+
+            int removed = 0;
+
+            if (all) {
+                removed += cache.prune(Instant.MAX);
+            }
+            if (unused != null) {
+                removed += cache.prune(Instant.now().minus(Duration.parse(unused)));
+            }
+            if (maxSize != null) {
+                removed += cache.evict(maxSize);
+            }
+            if (uris != null) {
+                for (final URI uri : uris) {
+                    if (cache.remove(uri.toString())) {
+                        removed++;
+                    }
+                }
+            }
+
+            spec.commandLine().getOut().println("Removed " + removed + " document(s).");
+            spec.commandLine().getOut().flush();
+
+            return spec.exitCodeOnSuccess();
+        }
+    }
+
+    @Command(name = "preload", mixinStandardHelpOptions = false, description = "Fetch documents and store them in the cache.", sortOptions = true, descriptionHeading = "%n", parameterListHeading = "%nParameters:%n", optionListHeading = "%nOptions:%n")
+    static final class PreloadCmd implements Callable<Integer> {
+
+        @Parameters(arity = "1..*", description = "Document URIs to fetch.", paramLabel = "<uri>")
+        URI[] uris = null;
+
+        @Mixin
+        CommandOptions options;
+
+        @Spec
+        CommandSpec spec;
+
+        private PreloadCmd() {
+        }
+
+        @Override
+        public Integer call() throws Exception {
+
+            var loader = Loaders.cacheLoader();
+
+            int failed = 0;
+
+            for (final URI uri : uris) {
+                try {
+                    loader.refresh(uri);
+                    spec.commandLine().getOut().println("Cached " + uri);
+
+                } catch (Exception e) {
+                    failed++;
+                    spec.commandLine().getErr().println(uri + ": " + e.getMessage());
+                }
+            }
+
+            spec.commandLine().getOut().flush();
+
+            return failed == 0
+                    ? spec.exitCodeOnSuccess()
+                    : spec.exitCodeOnExecutionException();
+        }
+    }
+}
@@ -3,12 +3,20 @@ package com.apicatalog.cli.command;
 import java.net.URI;
 import java.util.concurrent.Callable;
 
+import com.apicatalog.cli.loader.Loaders;
+import com.apicatalog.cli.metrics.Metrics;
+import com.apicatalog.cli.mixin.BatchOptions;
 import com.apicatalog.cli.mixin.CommandOptions;
 import com.apicatalog.cli.mixin.JsonInput;
 import com.apicatalog.cli.mixin.JsonOutput;
+import com.apicatalog.cli.mixin.NdJsonInput;
 import com.apicatalog.jsonld.JsonLd;
+import com.apicatalog.jsonld.JsonLdError;
 import com.apicatalog.jsonld.JsonLdVersion;
 import com.apicatalog.jsonld.api.CompactionApi;
+import com.apicatalog.jsonld.document.Document;
+
+import jakarta.json.JsonObject;
 
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Mixin;
@@ -45,6 +53,12 @@ public final class CompactCmd implements Callable<Integer> {
     @Option(names = { "-r", "--keep-uris" }, description = "Preserve absolute  absolute URIs.")
     boolean keepAbsoluteURI = false;
 
+    @Mixin
+    BatchOptions batch;
+
+    @Mixin
+    NdJsonInput ndjson;
+
     @Mixin
     CommandOptions options;
 
@@ -57,7 +71,27 @@ public final class CompactCmd implements Callable<Integer> {
     @Override
     public Integer call() throws Exception {
 
-        final CompactionApi api = JsonLd.compact(input.fetch(), JsonInput.fetch(context))
+        final Document contextDocument = JsonInput.fetch(context);
+
+        if (batch.isEnabled()) {
+            return batch.process(spec, ".jsonld",
+                    (document, os) -> output.print(os, compact(JsonInput.fetch(document), contextDocument)));
+        }
+
+        if (ndjson.isEnabled()) {
+            return ndjson.process(spec, output, batch.threads,
+                    document -> compact(document, contextDocument).toString());
+        }
+
+        output.print(compact(input.fetch(), contextDocument));
+
+        return spec.exitCodeOnSuccess();
+    }
+
+    JsonObject compact(Document document, Document context) throws JsonLdError {
+
+        final CompactionApi api = JsonLd.compact(document, context)
+                .options(Loaders.options())
                 .base(base)
                 .ordered(ordered)
                 .compactArrays(!keepArrays)
@@ -67,8 +101,8 @@ public final class CompactCmd implements Callable<Integer> {
             api.mode(JsonLdVersion.of("json-ld-" + mode));
         }
 
-        output.print(spec.commandLine().getOut(), api.get());
-
-        return spec.exitCodeOnSuccess();
+        try (final Metrics.Phase phase = Metrics.phase("compact")) {
+            return api.get();
+        }
     }
 }
\ No newline at end of file
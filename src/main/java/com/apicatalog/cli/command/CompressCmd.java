@@ -1,19 +1,39 @@
 package com.apicatalog.cli.command;
 
-import java.io.FileOutputStream;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Iterator;
 import java.util.concurrent.Callable;
+import java.util.stream.Stream;
 
 import com.apicatalog.base.Base16;
 import com.apicatalog.cborld.CborLd;
 import com.apicatalog.cborld.CborLdVersion;
+import com.apicatalog.cborld.registry.DocumentDictionary;
 import com.apicatalog.cli.JsonCborDictionary;
+import com.apicatalog.cli.codec.CompressionStats;
+import com.apicatalog.cli.loader.Loaders;
+import com.apicatalog.cli.metrics.Metrics;
+import com.apicatalog.cli.mixin.BatchOptions;
+import com.apicatalog.cli.mixin.BinaryOutput;
 import com.apicatalog.cli.mixin.CommandOptions;
 import com.apicatalog.cli.mixin.JsonInput;
+import com.apicatalog.cli.mixin.NdJsonInput;
+import com.apicatalog.cli.mixin.Output;
+import com.apicatalog.cli.mixin.Output.Encoding;
+import com.apicatalog.jcs.JsonCanonicalizer;
 import com.apicatalog.jsonld.document.JsonDocument;
 import com.apicatalog.jsonld.json.JsonUtils;
 
+import jakarta.json.JsonObject;
+
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Mixin;
 import picocli.CommandLine.Model.CommandSpec;
@@ -23,11 +43,24 @@ import picocli.CommandLine.Spec;
 @Command(name = "compress", mixinStandardHelpOptions = false, description = "Compress JSON-LD document into CBOR-LD.", sortOptions = true, descriptionHeading = "%n", parameterListHeading = "%nParameters:%n", optionListHeading = "%nOptions:%n")
 public final class CompressCmd implements Callable<Integer> {
 
+    /** The number of the most frequent uncompressed strings to report. */
+    static final int STATS_STRINGS = 20;
+
+    @FunctionalInterface
+    interface Sampler {
+        void sample(JsonDocument document) throws Exception;
+    }
+
     @Mixin
     JsonInput input;
 
-    @Option(names = { "-o", "--output" }, description = "Output file name.", paramLabel = "<file>")
-    String output = null;
+    @Mixin
+    BinaryOutput output;
+
+    @Option(names = { "-o" }, description = "Output file name, same as --output.", paramLabel = "<file>")
+    void outputFile(Path file) {
+        output.file = file;
+    }
 
     @Option(names = { "-b", "--base" }, description = "Base URI of the input document.", paramLabel = "<uri>")
     URI base = null;
@@ -44,6 +77,15 @@ public final class CompressCmd implements Callable<Integer> {
     @Option(names = { "-x", "--hex" }, description = "Output result as hexadecimal-encoded. Automatically enabled for stdout.")
     boolean hex = false;
 
+    @Option(names = { "--stats", "--analyze" }, description = "Report sizes, compression ratio, encode and decode latency, and strings left uncompressed instead of the encoded output. Accepts --batch and --ndjson inputs.")
+    boolean stats = false;
+
+    @Mixin
+    BatchOptions batch;
+
+    @Mixin
+    NdJsonInput ndjson;
+
     @Mixin
     CommandOptions options;
 
@@ -56,15 +98,6 @@ public final class CompressCmd implements Callable<Integer> {
     @Override
     public Integer call() throws Exception {
 
-        final JsonDocument document = input.fetch();
-
-        var json = document.getJsonContent()
-                .orElseThrow(() -> new IllegalArgumentException("Invalid input document. JSON document expected but got [" + document.getContentType() + "]."));
-
-        if (JsonUtils.isNotObject(json)) {
-            throw new IllegalArgumentException("The input docunent root is not JSON object but [" + json.getValueType() + "].");
-        }
-
         var version = switch (mode) {
         case "v05" -> CborLdVersion.V05;
         case "v06" -> CborLdVersion.V06;
@@ -73,33 +106,169 @@ public final class CompressCmd implements Callable<Integer> {
         };
 
         var encoder = CborLd.createEncoder(version)
+                .loader(Loaders.get())
                 .base(base)
                 .compactArray(!keepArrays);
 
-        if (dictionary != null) {
-            encoder.dictionary(JsonCborDictionary.of(dictionary));
+        final DocumentDictionary custom = dictionary != null
+                ? JsonCborDictionary.of(dictionary)
+                : null;
+
+        if (custom != null) {
+            encoder.dictionary(custom);
         }
 
-        var encoded = encoder
-                .build()
-                .encode(json.asJsonObject());
+        // the encoder and dictionary are shared by all documents
+        var cborld = encoder.build();
 
-        if (output == null) {
-            spec.commandLine().getOut().print(Base16.encode(encoded, Base16.ALPHABET_LOWER));
-            spec.commandLine().getOut().flush();
+        if (stats) {
 
-        } else {
-            try (var os = new FileOutputStream(output)) {
-                if (hex) {
-                    os.write(Base16.encode(encoded, Base16.ALPHABET_LOWER).getBytes(StandardCharsets.UTF_8));
-                } else {
-                    os.write(encoded);
-                }
+            var decoder = CborLd.createDecoder(CborLdVersion.V1, CborLdVersion.V06, CborLdVersion.V05)
+                    .loader(Loaders.get())
+                    .base(base)
+                    .compactArray(!keepArrays);
+
+            if (custom != null) {
+                decoder.dictionary(custom);
+                decoder.dictionary(CborLdVersion.V06, custom);
+            }
+
+            var cborldDecoder = decoder.build();
+
+            final CompressionStats report = new CompressionStats();
+
+            stats(report, document -> {
 
-                os.flush();
+                final JsonObject json = object(document);
+
+                final StringWriter jcs = new StringWriter();
+                JsonCanonicalizer.canonize(json, jcs);
+
+                long time = System.nanoTime();
+                final byte[] encoded = cborld.encode(json);
+                final long encode = System.nanoTime() - time;
+
+                time = System.nanoTime();
+                cborldDecoder.decode(encoded);
+                final long decode = System.nanoTime() - time;
+
+                report.add(
+                        json.toString().getBytes(StandardCharsets.UTF_8).length,
+                        jcs.toString().getBytes(StandardCharsets.UTF_8).length,
+                        encoded,
+                        encode,
+                        decode);
+            });
+
+            try (final PrintWriter writer = output.writer()) {
+                report.print(writer, STATS_STRINGS);
             }
+
+            return spec.exitCodeOnSuccess();
+        }
+
+        if (batch.isEnabled()) {
+            final Encoding encoding = output.encoding(hex ? Encoding.HEX : Encoding.RAW);
+            return batch.process(spec, extension(encoding), (document, os) -> {
+                final JsonObject object = object(JsonInput.fetch(document));
+                final byte[] encoded;
+                try (final Metrics.Phase phase = Metrics.phase("compress")) {
+                    encoded = cborld.encode(object);
+                }
+                try (final OutputStream encoder = Output.encode(os, encoding)) {
+                    encoder.write(encoded);
+                }
+            });
         }
 
+        if (ndjson.isEnabled()) {
+            return ndjson.process(spec, output, batch.threads, document -> {
+                final JsonObject object = object(document);
+                try (final Metrics.Phase phase = Metrics.phase("compress")) {
+                    return Base16.encode(cborld.encode(object), Base16.ALPHABET_LOWER);
+                }
+            });
+        }
+
+        final JsonObject object = object(input.fetch());
+        final byte[] encoded;
+
+        try (final Metrics.Phase phase = Metrics.phase("compress")) {
+            encoded = cborld.encode(object);
+        }
+
+        // hexadecimal-encoded for the standard output
+        output.write(
+                encoded,
+                output.encoding(hex || !output.isFile() ? Encoding.HEX : Encoding.RAW));
+
         return spec.exitCodeOnSuccess();
     }
-}
\ No newline at end of file
+
+    /**
+     * Samples all input documents one by one, so the measured latency is not
+     * affected by other documents processed concurrently. A failure is
+     * reported and does not stop processing.
+     */
+    void stats(CompressionStats report, Sampler sampler) throws Exception {
+
+        if (batch.isEnabled()) {
+            try (final Stream<BatchOptions.Input> documents = BatchOptions.documents(batch.batch)) {
+                final Iterator<BatchOptions.Input> it = documents.iterator();
+                while (it.hasNext()) {
+                    final BatchOptions.Input document = it.next();
+                    sample(report, sampler, document.name().toString(), () -> JsonInput.fetch(document.path()));
+                }
+            }
+            return;
+        }
+
+        if (ndjson.isEnabled()) {
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), 64 * 1024);
+            String line;
+            long number = 0;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                final String record = line;
+                sample(report, sampler, "Line " + number, () -> JsonDocument.of(new StringReader(record)));
+            }
+            return;
+        }
+
+        sampler.sample(input.fetch());
+    }
+
+    void sample(CompressionStats report, Sampler sampler, String location, Callable<JsonDocument> document) {
+        try {
+            sampler.sample(document.call());
+
+        } catch (Exception e) {
+            report.fail();
+            spec.commandLine().getErr().println(location + ": " + e.getMessage());
+            spec.commandLine().getErr().flush();
+        }
+    }
+
+    static JsonObject object(final JsonDocument document) {
+
+        var json = document.getJsonContent()
+                .orElseThrow(() -> new IllegalArgumentException("Invalid input document. JSON document expected but got [" + document.getContentType() + "]."));
+
+        if (JsonUtils.isNotObject(json)) {
+            throw new IllegalArgumentException("The input docunent root is not JSON object but [" + json.getValueType() + "].");
+        }
+
+        return json.asJsonObject();
+    }
+
+    static String extension(Encoding encoding) {
+        return switch (encoding) {
+        case HEX -> ".hex";
+        case BASE64 -> ".b64";
+        case RAW -> ".cbor";
+        };
+    }
+}
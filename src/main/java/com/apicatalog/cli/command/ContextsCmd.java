@@ -0,0 +1,131 @@
+package com.apicatalog.cli.command;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import com.apicatalog.cli.WorkingDirectory;
+import com.apicatalog.cli.loader.ContextPack;
+import com.apicatalog.cli.loader.Loaders;
+import com.apicatalog.cli.mixin.CommandOptions;
+import com.apicatalog.cli.mixin.JsonInput;
+import com.apicatalog.jsonld.document.Document;
+import com.apicatalog.jsonld.loader.DocumentLoaderOptions;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.Spec;
+
+@Command(name = "contexts", mixinStandardHelpOptions = false, description = "Build or inspect context packs for offline processing.", sortOptions = true, descriptionHeading = "%n", parameterListHeading = "%nParameters:%n", optionListHeading = "%nOptions:%n", commandListHeading = "%nCommands:%n", subcommands = {
+        ContextsCmd.PackCmd.class,
+        ContextsCmd.ListCmd.class,
+})
+public final class ContextsCmd implements Callable<Integer> {
+
+    @Mixin
+    CommandOptions options;
+
+    @Spec
+    CommandSpec spec;
+
+    private ContextsCmd() {
+    }
+
+    @Override
+    public Integer call() throws Exception {
+        spec.commandLine().usage(spec.commandLine().getOut());
+        return spec.exitCodeOnUsageHelp();
+    }
+
+    @Command(name = "pack", mixinStandardHelpOptions = false, description = "Bundle contexts into a single memory-mapped file. Use @file to read the list from a file.", sortOptions = true, descriptionHeading = "%n", parameterListHeading = "%nParameters:%n", optionListHeading = "%nOptions:%n")
+    static final class PackCmd implements Callable<Integer> {
+
+        @Option(names = { "-o", "--output" }, required = true, description = "Output file name.", paramLabel = "<file>")
+        Path output = null;
+
+        @Parameters(arity = "1..*", description = "Context URIs, or local files mapped to an IRI.", paramLabel = "<uri|iri=file>")
+        String[] contexts = null;
+
+        @Mixin
+        CommandOptions options;
+
+        @Spec
+        CommandSpec spec;
+
+        private PackCmd() {
+        }
+
+        @Override
+        public Integer call() throws Exception {
+
+            final Map<String, Document> documents = new LinkedHashMap<>();
+
+            for (final String context : contexts) {
+
+                final int eq = context.indexOf('=');
+
+                if (eq > 0) {
+                    documents.put(context.substring(0, eq), JsonInput.fetch(WorkingDirectory.resolve(context.substring(eq + 1))));
+                    continue;
+                }
+
+                final URI uri = URI.create(context);
+
+                if (!uri.isAbsolute()) {
+                    throw new IllegalArgumentException("Local file [" + context + "] must be mapped to an IRI, e.g. https://example.org/context=" + context + ".");
+                }
+
+                documents.put(context, Loaders.get().loadDocument(uri, new DocumentLoaderOptions()));
+            }
+
+            ContextPack.write(output, documents);
+
+            spec.commandLine().getOut().println("Packed " + documents.size() + " context(s) into " + output);
+            spec.commandLine().getOut().flush();
+
+            return spec.exitCodeOnSuccess();
+        }
+    }
+
+    @Command(name = "list", mixinStandardHelpOptions = false, description = "List contexts bundled in a context pack.", sortOptions = true, descriptionHeading = "%n", parameterListHeading = "%nParameters:%n", optionListHeading = "%nOptions:%n")
+    static final class ListCmd implements Callable<Integer> {
+
+        @Parameters(index = "0", arity = "1", description = "Context pack file.", paramLabel = "<file>")
+        Path pack = null;
+
+        @Mixin
+        CommandOptions options;
+
+        @Spec
+        CommandSpec spec;
+
+        private ListCmd() {
+        }
+
+        @Override
+        public Integer call() throws Exception {
+
+            var entries = ContextPack.open(pack).entries();
+            var writer = spec.commandLine().getOut();
+
+            writer.println("Bundled contexts: " + entries.size() + " total");
+            writer.println();
+            writer.printf("%-10s %s", "Size", "IRI");
+            writer.println();
+            writer.println("---------- ---");
+
+            entries.forEach((iri, size) -> {
+                writer.printf("%10d %s", size, iri);
+                writer.println();
+            });
+
+            writer.flush();
+            return spec.exitCodeOnSuccess();
+        }
+    }
+}
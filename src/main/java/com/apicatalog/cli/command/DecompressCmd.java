@@ -1,15 +1,24 @@
 package com.apicatalog.cli.command;
 
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.concurrent.Callable;
 
 import com.apicatalog.base.Base16;
 import com.apicatalog.cborld.CborLd;
 import com.apicatalog.cborld.CborLdVersion;
 import com.apicatalog.cli.JsonCborDictionary;
+import com.apicatalog.cli.loader.Loaders;
+import com.apicatalog.cli.metrics.Metrics;
+import com.apicatalog.cli.mixin.BatchOptions;
 import com.apicatalog.cli.mixin.ByteInput;
 import com.apicatalog.cli.mixin.CommandOptions;
 import com.apicatalog.cli.mixin.JsonOutput;
+import com.apicatalog.cli.mixin.LineProcessor;
 
 import jakarta.json.JsonStructure;
 import picocli.CommandLine.Command;
@@ -39,6 +48,12 @@ public final class DecompressCmd implements Callable<Integer> {
     @Option(names = { "-x", "--hex" }, description = "Treat input as a hexadecimal-encoded CBOR-LD document.")
     boolean hex = false;
 
+    @Option(names = { "--lines" }, description = "Read hexadecimal-encoded CBOR-LD documents from standard input, one per line, and write one JSON document per line.")
+    boolean lines = false;
+
+    @Mixin
+    BatchOptions batch;
+
     @Mixin
     CommandOptions options;
 
@@ -51,23 +66,64 @@ public final class DecompressCmd implements Callable<Integer> {
     @Override
     public Integer call() throws Exception {
 
-        var encoded = decode(input.fetch());
-
         var decoder = CborLd.createDecoder(CborLdVersion.V1, CborLdVersion.V06, CborLdVersion.V05)
+                .loader(Loaders.get())
                 .base(base)
                 .compactArray(!keepArrays);
 
         if (dictionaries != null) {
             for (var dictionary : dictionaries) {
                 // register dictionaries for all formats to keep it backward compatible
-                decoder.dictionary(JsonCborDictionary.of(dictionary));
-                decoder.dictionary(CborLdVersion.V06, JsonCborDictionary.of(dictionary));
+                var parsed = JsonCborDictionary.of(dictionary);
+                decoder.dictionary(parsed);
+                decoder.dictionary(CborLdVersion.V06, parsed);
+            }
+        }
+
+        // the decoder and dictionaries are shared by all documents
+        var cborld = decoder.build();
+
+        if (batch.isEnabled()) {
+            return batch.process(spec, ".jsonld", (document, os) -> {
+                final byte[] encoded = decode(Files.readAllBytes(document));
+                final JsonStructure decoded;
+                try (final Metrics.Phase phase = Metrics.phase("decompress")) {
+                    decoded = (JsonStructure) cborld.decode(encoded);
+                }
+                output.print(os, decoded);
+            });
+        }
+
+        if (lines) {
+            final long failed;
+
+            try (final PrintWriter out = output.writer()) {
+                failed = LineProcessor.process(
+                        new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), 64 * 1024),
+                        out,
+                        spec.commandLine().getErr(),
+                        batch.threads,
+                        line -> {
+                            final byte[] encoded = Base16.decode(line.strip());
+                            try (final Metrics.Phase phase = Metrics.phase("decompress")) {
+                                return cborld.decode(encoded).toString();
+                            }
+                        });
             }
+
+            return failed == 0
+                    ? spec.exitCodeOnSuccess()
+                    : spec.exitCodeOnExecutionException();
         }
 
-        var decoded = decoder.build().decode(encoded);
+        final byte[] encoded = decode(input.fetch());
+        final JsonStructure decoded;
+
+        try (final Metrics.Phase phase = Metrics.phase("decompress")) {
+            decoded = (JsonStructure) cborld.decode(encoded);
+        }
 
-        output.print(spec.commandLine().getOut(), (JsonStructure) decoded);
+        output.print(decoded);
 
         return spec.exitCodeOnSuccess();
     }
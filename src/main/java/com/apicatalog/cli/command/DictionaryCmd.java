@@ -0,0 +1,251 @@
+package com.apicatalog.cli.command;
+
+import java.io.PrintWriter;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import com.apicatalog.cborld.CborLd;
+import com.apicatalog.cborld.CborLdVersion;
+import com.apicatalog.cli.CborDictionaryTrainer;
+import com.apicatalog.cli.CompiledCborDictionary;
+import com.apicatalog.cli.JsonCborDictionary;
+import com.apicatalog.cli.loader.Loaders;
+import com.apicatalog.cli.mixin.BatchOptions;
+import com.apicatalog.cli.mixin.CommandOptions;
+import com.apicatalog.cli.mixin.JsonInput;
+import com.apicatalog.cli.mixin.JsonOutput;
+
+import jakarta.json.JsonValue.ValueType;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.Spec;
+
+@Command(name = "dictionary", mixinStandardHelpOptions = false, description = "Manage custom CBOR-LD dictionaries.", sortOptions = true, descriptionHeading = "%n", parameterListHeading = "%nParameters:%n", optionListHeading = "%nOptions:%n", commandListHeading = "%nCommands:%n", subcommands = {
+        DictionaryCmd.CompileCmd.class,
+        DictionaryCmd.TrainCmd.class,
+})
+public final class DictionaryCmd implements Callable<Integer> {
+
+    @Mixin
+    CommandOptions options;
+
+    @Spec
+    CommandSpec spec;
+
+    private DictionaryCmd() {
+    }
+
+    @Override
+    public Integer call() throws Exception {
+        spec.commandLine().usage(spec.commandLine().getOut());
+        return spec.exitCodeOnUsageHelp();
+    }
+
+    @Command(name = "compile", mixinStandardHelpOptions = false, description = "Validate a JSON dictionary and compile it into a memory-mapped binary form accepted by --dictionary.", sortOptions = true, descriptionHeading = "%n", parameterListHeading = "%nParameters:%n", optionListHeading = "%nOptions:%n")
+    static final class CompileCmd implements Callable<Integer> {
+
+        @Option(names = { "-o", "--output" }, required = true, description = "Output file name.", paramLabel = "<file>")
+        Path output = null;
+
+        @Parameters(index = "0", arity = "1", description = "JSON dictionary definition.", paramLabel = "<file>")
+        Path input = null;
+
+        @Mixin
+        CommandOptions options;
+
+        @Spec
+        CommandSpec spec;
+
+        private CompileCmd() {
+        }
+
+        @Override
+        public Integer call() throws Exception {
+
+            final var json = JsonInput.fetch(input).getJsonContent()
+                    .filter(value -> value.getValueType() == ValueType.OBJECT)
+                    .orElseThrow(() -> new IllegalArgumentException("Invalid dictionary definition [" + input + "], a JSON object is expected."))
+                    .asJsonObject();
+
+            final int terms = CompiledCborDictionary.write(output, json);
+
+            spec.commandLine().getOut().println("Compiled " + terms + " term(s) into " + output);
+            spec.commandLine().getOut().flush();
+
+            return spec.exitCodeOnSuccess();
+        }
+    }
+
+    @Command(name = "train", mixinStandardHelpOptions = false, description = "Learn a dictionary from a corpus of JSON-LD documents. The most frequent contexts, URIs and typed values get the shortest codes.", sortOptions = true, descriptionHeading = "%n", parameterListHeading = "%nParameters:%n", optionListHeading = "%nOptions:%n")
+    static final class TrainCmd implements Callable<Integer> {
+
+        @FunctionalInterface
+        interface Task {
+            void process(Path document) throws Exception;
+        }
+
+        @Option(names = { "-c", "--code" }, required = true, description = "Registry code of the trained dictionary.", paramLabel = "<code>")
+        int code;
+
+        @Option(names = { "-d", "--dictionary" }, description = "Current dictionary location (JSON or compiled) to compare the trained dictionary with.", paramLabel = "<uri|file>")
+        URI dictionary = null;
+
+        @Option(names = { "--min-count" }, description = "Minimal number of occurrences of a value to get a code (default: 2).", paramLabel = "<count>")
+        long minCount = 2;
+
+        @Option(names = { "-o" }, description = "Output file name, same as --output.", paramLabel = "<file>")
+        void outputFile(Path file) {
+            json.file = file;
+        }
+
+        @Option(names = { "--threads" }, description = "Number of worker threads, 0 for a virtual thread per document (default: number of processors).", paramLabel = "<count>")
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        @Parameters(index = "0", arity = "1", description = "Corpus documents in a directory, matching a glob pattern, or listed in a file (@file).", paramLabel = "<dir|glob|@file>")
+        String corpus = null;
+
+        @Mixin
+        JsonOutput json;
+
+        @Mixin
+        CommandOptions options;
+
+        @Spec
+        CommandSpec spec;
+
+        private TrainCmd() {
+        }
+
+        @Override
+        public Integer call() throws Exception {
+
+            final PrintWriter err = spec.commandLine().getErr();
+
+            final CborDictionaryTrainer trainer = new CborDictionaryTrainer();
+
+            final Set<Path> failures = ConcurrentHashMap.newKeySet();
+
+            final long failed = forEach(err, failures,
+                    document -> trainer.add(CompressCmd.object(JsonInput.fetch(document))));
+
+            final var trained = trainer.build(code, minCount);
+
+            json.print(trained);
+
+            // measure encoded sizes with the current and the trained dictionary
+            final var current = CborLd.createEncoder(CborLdVersion.V1)
+                    .loader(Loaders.get());
+
+            if (dictionary != null) {
+                current.dictionary(JsonCborDictionary.of(dictionary));
+            }
+
+            final var baseline = current.build();
+
+            final var candidate = CborLd.createEncoder(CborLdVersion.V1)
+                    .loader(Loaders.get())
+                    .dictionary(JsonCborDictionary.of(trained))
+                    .build();
+
+            final LongAdder before = new LongAdder();
+            final LongAdder after = new LongAdder();
+            final LongAdder compared = new LongAdder();
+
+            final String reference = dictionary != null ? "current" : "default";
+
+            // documents failed in training are not compared again
+            final long incomparable = forEach(err, failures, document -> {
+                final var object = CompressCmd.object(JsonInput.fetch(document));
+                final int size = encode(() -> baseline.encode(object), reference);
+                after.add(encode(() -> candidate.encode(object), "trained"));
+                before.add(size);
+                compared.increment();
+            });
+
+            err.println("Trained on " + trainer.documents() + " document(s), " + failed + " failed.");
+            err.println("Compared " + compared.sum() + " document(s), " + incomparable + " failed to encode.");
+
+            if (compared.sum() > 0) {
+                final double count = compared.sum();
+                err.printf("Average size per document: %.1f bytes with the %s dictionary, %.1f bytes with the trained one, %.1f bytes (%.1f%%) saved.%n",
+                        before.sum() / count,
+                        reference,
+                        after.sum() / count,
+                        (before.sum() - after.sum()) / count,
+                        before.sum() > 0 ? (before.sum() - after.sum()) * 100d / before.sum() : 0d);
+            }
+            err.flush();
+
+            return failed + incomparable == 0
+                    ? spec.exitCodeOnSuccess()
+                    : spec.exitCodeOnExecutionException();
+        }
+
+        static int encode(Callable<byte[]> encoding, String dictionary) {
+            try {
+                return encoding.call().length;
+
+            } catch (Exception e) {
+                throw new IllegalStateException("Encoding with the " + dictionary + " dictionary failed, " + e.getMessage(), e);
+            }
+        }
+
+        /**
+         * Processes all corpus documents in parallel.
+         *
+         * @param err      a failure report output
+         * @param failures collects failed documents, documents already
+         *                 collected are skipped
+         * @param task     a task processing a single document
+         * @return the number of failed documents
+         */
+        long forEach(PrintWriter err, Set<Path> failures, Task task) throws Exception {
+
+            final LongAdder failed = new LongAdder();
+
+            try (final ExecutorService executor = threads > 0
+                    ? Executors.newFixedThreadPool(threads)
+                    : Executors.newVirtualThreadPerTaskExecutor();
+                    final Stream<BatchOptions.Input> documents = BatchOptions.documents(corpus)) {
+
+                final List<Future<?>> tasks = new ArrayList<>();
+
+                documents
+                        .filter(document -> !failures.contains(document.path()))
+                        .forEach(document -> tasks.add(executor.submit(() -> {
+                            try {
+                                task.process(document.path());
+
+                            } catch (Exception e) {
+                                failed.increment();
+                                failures.add(document.path());
+                                synchronized (err) {
+                                    err.println(document.name() + ": " + e.getMessage());
+                                    err.flush();
+                                }
+                            }
+                        })));
+
+                for (final Future<?> result : tasks) {
+                    result.get();
+                }
+            }
+
+            return failed.sum();
+        }
+    }
+}
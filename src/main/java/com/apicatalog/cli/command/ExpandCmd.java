@@ -3,12 +3,20 @@ package com.apicatalog.cli.command;
 import java.net.URI;
 import java.util.concurrent.Callable;
 
+import com.apicatalog.cli.loader.Loaders;
+import com.apicatalog.cli.metrics.Metrics;
+import com.apicatalog.cli.mixin.BatchOptions;
 import com.apicatalog.cli.mixin.CommandOptions;
 import com.apicatalog.cli.mixin.JsonInput;
 import com.apicatalog.cli.mixin.JsonOutput;
+import com.apicatalog.cli.mixin.NdJsonInput;
 import com.apicatalog.jsonld.JsonLd;
+import com.apicatalog.jsonld.JsonLdError;
 import com.apicatalog.jsonld.JsonLdVersion;
 import com.apicatalog.jsonld.api.ExpansionApi;
+import com.apicatalog.jsonld.document.Document;
+
+import jakarta.json.JsonArray;
 
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Mixin;
@@ -38,6 +46,12 @@ public final class ExpandCmd implements Callable<Integer> {
             "--ordered" }, description = "Order certain algorithm steps lexicographically.")
     boolean ordered = false;
 
+    @Mixin
+    BatchOptions batch;
+
+    @Mixin
+    NdJsonInput ndjson;
+
     @Mixin
     CommandOptions options;
 
@@ -50,8 +64,30 @@ public final class ExpandCmd implements Callable<Integer> {
     @Override
     public Integer call() throws Exception {
 
+        final Document expandContext = context != null
+                ? JsonInput.fetch(context)
+                : null;
+
+        if (batch.isEnabled()) {
+            return batch.process(spec, ".jsonld",
+                    (document, os) -> output.print(os, expand(JsonInput.fetch(document), expandContext)));
+        }
+
+        if (ndjson.isEnabled()) {
+            return ndjson.process(spec, output, batch.threads,
+                    document -> expand(document, expandContext).toString());
+        }
+
+        output.print(expand(input.fetch(), expandContext));
+
+        return spec.exitCodeOnSuccess();
+    }
+
+    JsonArray expand(Document document, Document expandContext) throws JsonLdError {
+
         final ExpansionApi api = JsonLd
-                .expand(input.fetch())
+                .expand(document)
+                .options(Loaders.options())
                 .ordered(ordered)
                 .base(base);
 
@@ -59,12 +95,12 @@ public final class ExpandCmd implements Callable<Integer> {
             api.mode(JsonLdVersion.of("json-ld-" + mode));
         }
 
-        if (context != null) {
-            api.context(JsonInput.fetch(context));
+        if (expandContext != null) {
+            api.context(expandContext);
         }
 
-        output.print(spec.commandLine().getOut(), api.get());
-
-        return spec.exitCodeOnSuccess();
+        try (final Metrics.Phase phase = Metrics.phase("expand")) {
+            return api.get();
+        }
     }
 }
\ No newline at end of file
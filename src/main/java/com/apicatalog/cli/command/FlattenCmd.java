@@ -3,13 +3,21 @@ package com.apicatalog.cli.command;
 import java.net.URI;
 import java.util.concurrent.Callable;
 
+import com.apicatalog.cli.loader.Loaders;
+import com.apicatalog.cli.metrics.Metrics;
+import com.apicatalog.cli.mixin.BatchOptions;
 import com.apicatalog.cli.mixin.CommandOptions;
 import com.apicatalog.cli.mixin.JsonInput;
 import com.apicatalog.cli.mixin.JsonOutput;
+import com.apicatalog.cli.mixin.NdJsonInput;
 import com.apicatalog.jsonld.JsonLd;
+import com.apicatalog.jsonld.JsonLdError;
 import com.apicatalog.jsonld.JsonLdOptions;
 import com.apicatalog.jsonld.JsonLdVersion;
 import com.apicatalog.jsonld.api.FlatteningApi;
+import com.apicatalog.jsonld.document.Document;
+
+import jakarta.json.JsonStructure;
 
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Mixin;
@@ -45,6 +53,12 @@ public final class FlattenCmd implements Callable<Integer> {
     @Option(names = { "-a", "--keep-arrays" }, description = "Keep arrays with just one element.")
     boolean compactArrays = true;
 
+    @Mixin
+    BatchOptions batch;
+
+    @Mixin
+    NdJsonInput ndjson;
+
     @Mixin
     CommandOptions options;
 
@@ -57,11 +71,36 @@ public final class FlattenCmd implements Callable<Integer> {
     @Override
     public Integer call() throws Exception {
 
-        final FlatteningApi api = JsonLd.flatten(input.fetch());
+        final Document expandContextDocument = expandContext != null
+                ? JsonInput.fetch(expandContext)
+                : null;
+
+        final Document contextDocument = context != null
+                ? JsonInput.fetch(context)
+                : null;
+
+        if (batch.isEnabled()) {
+            return batch.process(spec, ".jsonld",
+                    (document, os) -> output.print(os, flatten(JsonInput.fetch(document), expandContextDocument, contextDocument)));
+        }
+
+        if (ndjson.isEnabled()) {
+            return ndjson.process(spec, output, batch.threads,
+                    document -> flatten(document, expandContextDocument, contextDocument).toString());
+        }
 
-        final JsonLdOptions options = new JsonLdOptions();
+        output.print(flatten(input.fetch(), expandContextDocument, contextDocument));
+
+        return spec.exitCodeOnSuccess();
+    }
+
+    JsonStructure flatten(Document document, Document expandContext, Document context) throws JsonLdError {
+
+        final FlatteningApi api = JsonLd.flatten(document);
+
+        final JsonLdOptions options = Loaders.options();
         if (expandContext != null) {
-            options.setExpandContext(JsonInput.fetch(expandContext));
+            options.setExpandContext(expandContext);
         }
 
         api.options(options)
@@ -74,11 +113,11 @@ public final class FlattenCmd implements Callable<Integer> {
         }
 
         if (context != null) {
-            api.context(JsonInput.fetch(context));
+            api.context(context);
         }
 
-        output.print(spec.commandLine().getOut(), api.get());
-
-        return spec.exitCodeOnSuccess();
+        try (final Metrics.Phase phase = Metrics.phase("flatten")) {
+            return api.get();
+        }
     }
 }
\ No newline at end of file
@@ -3,13 +3,21 @@ package com.apicatalog.cli.command;
 import java.net.URI;
 import java.util.concurrent.Callable;
 
+import com.apicatalog.cli.loader.Loaders;
+import com.apicatalog.cli.metrics.Metrics;
+import com.apicatalog.cli.mixin.BatchOptions;
 import com.apicatalog.cli.mixin.CommandOptions;
 import com.apicatalog.cli.mixin.JsonInput;
 import com.apicatalog.cli.mixin.JsonOutput;
+import com.apicatalog.cli.mixin.NdJsonInput;
 import com.apicatalog.jsonld.JsonLd;
 import com.apicatalog.jsonld.JsonLdEmbed;
+import com.apicatalog.jsonld.JsonLdError;
 import com.apicatalog.jsonld.JsonLdVersion;
 import com.apicatalog.jsonld.api.FramingApi;
+import com.apicatalog.jsonld.document.Document;
+
+import jakarta.json.JsonObject;
 
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Mixin;
@@ -58,6 +66,12 @@ public final class FrameCmd implements Callable<Integer> {
     @Option(names = { "-e", "--embed" }, description = "Embedding behavior.", paramLabel = "ALWAYS|NEVER|ONCE")
     String embed = "ONCE";
 
+    @Mixin
+    BatchOptions batch;
+
+    @Mixin
+    NdJsonInput ndjson;
+
     @Mixin
     CommandOptions options;
 
@@ -70,7 +84,31 @@ public final class FrameCmd implements Callable<Integer> {
     @Override
     public Integer call() throws Exception {
 
-        final FramingApi api = JsonLd.frame(input.fetch(), JsonInput.fetch(frame))
+        final Document frameDocument = JsonInput.fetch(frame);
+
+        final Document contextDocument = context != null
+                ? JsonInput.fetch(context)
+                : null;
+
+        if (batch.isEnabled()) {
+            return batch.process(spec, ".jsonld",
+                    (document, os) -> output.print(os, frame(JsonInput.fetch(document), frameDocument, contextDocument)));
+        }
+
+        if (ndjson.isEnabled()) {
+            return ndjson.process(spec, output, batch.threads,
+                    document -> frame(document, frameDocument, contextDocument).toString());
+        }
+
+        output.print(frame(input.fetch(), frameDocument, contextDocument));
+
+        return spec.exitCodeOnSuccess();
+    }
+
+    JsonObject frame(Document document, Document frame, Document context) throws JsonLdError {
+
+        final FramingApi api = JsonLd.frame(document, frame)
+                .options(Loaders.options())
                 .base(base)
                 .ordered(ordered)
                 .explicit(explicit)
@@ -84,11 +122,11 @@ public final class FrameCmd implements Callable<Integer> {
         }
 
         if (context != null) {
-            api.context(JsonInput.fetch(context));
+            api.context(context);
         }
 
-        output.print(spec.commandLine().getOut(), api.get());
-
-        return spec.exitCodeOnSuccess();
+        try (final Metrics.Phase phase = Metrics.phase("frame")) {
+            return api.get();
+        }
     }
 }
\ No newline at end of file
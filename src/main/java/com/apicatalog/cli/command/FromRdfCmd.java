@@ -1,21 +1,43 @@
 package com.apicatalog.cli.command;
 
 import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
 import java.net.URI;
-import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.concurrent.Callable;
-
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.apicatalog.cli.WorkingDirectory;
+import com.apicatalog.cli.loader.Loaders;
+import com.apicatalog.cli.metrics.Metrics;
+import com.apicatalog.cli.mixin.ByteInput;
 import com.apicatalog.cli.mixin.CommandOptions;
+import com.apicatalog.cli.mixin.CompressedInput;
 import com.apicatalog.cli.mixin.JsonOutput;
+import com.apicatalog.cli.rdf.DatasetPartitioner;
 import com.apicatalog.jsonld.JsonLd;
 import com.apicatalog.jsonld.JsonLdVersion;
 import com.apicatalog.jsonld.api.FromRdfApi;
+import com.apicatalog.jsonld.document.Document;
 import com.apicatalog.jsonld.document.RdfDocument;
 import com.apicatalog.jsonld.http.media.MediaType;
 import com.apicatalog.jsonld.loader.HttpLoader;
+import com.apicatalog.rdf.nquads.NQuadsReader;
 
+import jakarta.json.JsonArray;
 import jakarta.json.JsonStructure;
+import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonGenerator;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Mixin;
 import picocli.CommandLine.Model.CommandSpec;
@@ -44,6 +66,15 @@ public final class FromRdfCmd implements Callable<Integer> {
     @Option(names = { "-n", "--native-types" }, description = "Use native types for numbers and booleans when possible.")
     boolean nativeTypes = false;
 
+    @Option(names = { "--parallel" }, description = "Partition the dataset by graph name and subject, convert partitions in parallel and stream node objects into the output.")
+    boolean parallel = false;
+
+    @Option(names = { "--partition-size" }, description = "Preferred number of quads in a partition with --parallel (default: 10000).", paramLabel = "<quads>")
+    int partitionSize = 10_000;
+
+    @Option(names = { "--threads" }, description = "Number of worker threads with --parallel, 0 for virtual threads (default: number of processors).", paramLabel = "<count>")
+    int threads = Runtime.getRuntime().availableProcessors();
+
     @Mixin
     CommandOptions options;
 
@@ -56,20 +87,42 @@ public final class FromRdfCmd implements Callable<Integer> {
     @Override
     public Integer call() throws Exception {
 
+        if (parallel) {
+            return parallel();
+        }
+
         final FromRdfApi api;
 
         if (input != null) {
-            if (input.isAbsolute()) {
+            if (input.isAbsolute() && "file".equalsIgnoreCase(input.getScheme())) {
+                api = JsonLd.fromRdf(read(Path.of(input)));
+
+            } else if (input.isAbsolute()) {
+                Loaders.requireOnline(input);
                 ((HttpLoader) HttpLoader.defaultInstance()).fallbackContentType(MediaType.N_QUADS);
                 api = JsonLd.fromRdf(input);
+
             } else {
-                api = JsonLd.fromRdf(RdfDocument.of(new ByteArrayInputStream(Files.readAllBytes(Path.of(input.toString())))));
+                api = JsonLd.fromRdf(read(WorkingDirectory.resolve(input.toString())));
             }
 
         } else {
-            api = JsonLd.fromRdf(RdfDocument.of(System.in));
+            api = JsonLd.fromRdf(RdfDocument.of(CompressedInput.of(System.in)));
         }
 
+        final JsonStructure jsonld;
+
+        try (final Metrics.Phase phase = Metrics.phase("fromrdf")) {
+            jsonld = configure(api).get();
+        }
+
+        output.print(jsonld);
+
+        return spec.exitCodeOnSuccess();
+    }
+
+    FromRdfApi configure(FromRdfApi api) {
+
         if (mode != null) {
             api.mode(JsonLdVersion.of("json-ld-" + mode));
         }
@@ -78,10 +131,120 @@ public final class FromRdfCmd implements Callable<Integer> {
         api.ordered(ordered);
         api.nativeTypes(nativeTypes);
 
-        final JsonStructure jsonld = api.get();
+        return api;
+    }
+
+    /**
+     * Converts dataset partitions in parallel, node objects are written in the
+     * partition order as soon as a partition is converted. Partitions are
+     * packed as workers become available, only a bounded number of packed and
+     * converted partitions is held in memory.
+     */
+    Integer parallel() throws Exception {
+
+        if (partitionSize < 1) {
+            throw new IllegalArgumentException("Partition size must be a positive number, but was " + partitionSize + ".");
+        }
+
+        final DatasetPartitioner partitioner = new DatasetPartitioner();
+
+        try (final Metrics.Phase phase = Metrics.phase("read")) {
+            read(partitioner);
+        }
+
+        final Iterator<byte[]> partitions = partitioner.partitions(partitionSize);
+
+        final int window = (threads > 0 ? threads : Runtime.getRuntime().availableProcessors()) * 2;
+
+        try (final OutputStream os = output.open()) {
+
+            try (final JsonGenerator generator = output.generator(os);
+                    final ExecutorService executor = threads > 0
+                            ? Executors.newFixedThreadPool(threads)
+                            : Executors.newVirtualThreadPerTaskExecutor()) {
+
+                generator.writeStartArray();
+
+                final Deque<Future<JsonArray>> pending = new ArrayDeque<>(window);
+
+                while (partitions.hasNext()) {
+
+                    final byte[] partition = partitions.next();
 
-        output.print(spec.commandLine().getOut(), jsonld);
+                    pending.add(executor.submit(() -> {
+                        try (final Metrics.Phase phase = Metrics.phase("fromrdf")) {
+                            return configure(JsonLd.fromRdf(RdfDocument.of(new ByteArrayInputStream(partition)))).get();
+                        }
+                    }));
+
+                    if (pending.size() >= window) {
+                        write(generator, pending.poll());
+                    }
+                }
+
+                while (!pending.isEmpty()) {
+                    write(generator, pending.poll());
+                }
+
+                generator.writeEnd();
+            }
+
+            os.write('\n');
+        }
 
         return spec.exitCodeOnSuccess();
     }
+
+    void read(DatasetPartitioner partitioner) throws Exception {
+
+        if (input != null) {
+            if (input.isAbsolute() && "file".equalsIgnoreCase(input.getScheme())) {
+                RdfCanonCmd.read(Path.of(input), partitioner);
+
+            } else if (input.isAbsolute()) {
+
+                Loaders.requireOnline(input);
+
+                try (final Reader reader = new InputStreamReader(ByteInput.fetchHttp(input), StandardCharsets.UTF_8)) {
+                    new NQuadsReader(reader).provide(partitioner);
+                }
+
+            } else {
+                RdfCanonCmd.read(WorkingDirectory.resolve(input.toString()), partitioner);
+            }
+
+        } else {
+            try (final Reader reader = new InputStreamReader(CompressedInput.of(System.in), StandardCharsets.UTF_8)) {
+                new NQuadsReader(reader).provide(partitioner);
+            }
+        }
+    }
+
+    static void write(JsonGenerator generator, Future<JsonArray> partition) throws Exception {
+
+        final JsonArray nodes;
+
+        try {
+            nodes = partition.get();
+
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+
+        for (final JsonValue node : nodes) {
+            generator.write(node);
+        }
+        generator.flush();
+    }
+
+    /**
+     * Parses a local file while it is read, gzip-compressed files are
+     * decompressed on the fly.
+     */
+    static Document read(Path path) throws Exception {
+        try (final Metrics.Phase phase = Metrics.phase("parse");
+                final InputStream is = CompressedInput.open(path)) {
+            return RdfDocument.of(is);
+        }
+    }
 }
\ No newline at end of file
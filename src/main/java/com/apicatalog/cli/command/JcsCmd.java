@@ -1,15 +1,28 @@
 package com.apicatalog.cli.command;
 
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.Callable;
 
+import com.apicatalog.cli.codec.Digest;
+import com.apicatalog.cli.metrics.Metrics;
+import com.apicatalog.cli.mixin.BatchOptions;
 import com.apicatalog.cli.mixin.CommandOptions;
 import com.apicatalog.cli.mixin.JsonInput;
+import com.apicatalog.cli.mixin.NdJsonInput;
+import com.apicatalog.cli.mixin.Output;
 import com.apicatalog.jcs.JsonCanonicalizer;
 import com.apicatalog.jsonld.document.Document;
+import com.apicatalog.multibase.Multibase;
+import com.apicatalog.multibase.MultibaseDecoder;
 
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Mixin;
 import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
 import picocli.CommandLine.Spec;
 
 @Command(name = "jcs", mixinStandardHelpOptions = false, description = "Canonize a JSON document using the JSON Canonicalization Scheme (JCS).", sortOptions = true, descriptionHeading = "%n", parameterListHeading = "%nParameters:%n", optionListHeading = "%nOptions:%n")
@@ -18,6 +31,21 @@ public final class JcsCmd implements Callable<Integer> {
     @Mixin
     JsonInput input;
 
+    @Option(names = { "--digest" }, description = "Print a digest of the canonical form instead, the canonical form is hashed while it is written.", paramLabel = "SHA256|SHA384|multihash")
+    Digest digest = null;
+
+    @Option(names = { "--multibase" }, description = "Encode the digest using multibase, e.g. base58btc, lower case hexadecimal if not set.", paramLabel = "<base>")
+    String multibase = null;
+
+    @Mixin
+    Output output;
+
+    @Mixin
+    BatchOptions batch;
+
+    @Mixin
+    NdJsonInput ndjson;
+
     @Mixin
     CommandOptions options;
 
@@ -30,15 +58,73 @@ public final class JcsCmd implements Callable<Integer> {
     @Override
     public Integer call() throws Exception {
 
-        final Document document = input.fetch();
+        if (multibase != null && digest == null) {
+            throw new IllegalArgumentException("Multibase encoding requires --digest.");
+        }
+
+        final Multibase base = multibase != null
+                ? MultibaseDecoder.getInstance().findBase(multibase)
+                        .orElseThrow(() -> new IllegalArgumentException("Unsupported base " + multibase + ". List supported bases with multibase --list."))
+                : null;
+
+        if (digest != null) {
+            return digest(base);
+        }
+
+        if (batch.isEnabled()) {
+            return batch.process(spec, ".json", (document, os) -> {
+                final Writer writer = new OutputStreamWriter(os, StandardCharsets.UTF_8);
+                canonize(JsonInput.fetch(document), writer);
+                writer.flush();
+            });
+        }
 
-        JsonCanonicalizer.canonize(
-                document.getJsonContent()
-                        .orElseThrow(() -> new IllegalArgumentException("Invalid input document. JSON document expected but got [" + document.getContentType() + "].")),
-                spec.commandLine().getOut());
+        if (ndjson.isEnabled()) {
+            return ndjson.process(spec, output, batch.threads, document -> {
+                final StringWriter writer = new StringWriter();
+                canonize(document, writer);
+                return writer.toString();
+            });
+        }
 
-        spec.commandLine().getOut().flush();
+        try (final Writer writer = output.writer()) {
+            canonize(input.fetch(), writer);
+        }
 
         return spec.exitCodeOnSuccess();
     }
+
+    Integer digest(Multibase base) throws Exception {
+
+        if (batch.isEnabled()) {
+            return batch.digest(spec, output, document -> Digest.encode(digest(JsonInput.fetch(document), digest), base));
+        }
+
+        if (ndjson.isEnabled()) {
+            return ndjson.process(spec, output, batch.threads, document -> Digest.encode(digest(document, digest), base));
+        }
+
+        try (final PrintWriter writer = output.writer()) {
+            writer.println(Digest.encode(digest(input.fetch(), digest), base));
+        }
+
+        return spec.exitCodeOnSuccess();
+    }
+
+    /**
+     * Streams the canonical form into a message digest, the canonical form is
+     * never held in memory.
+     */
+    static byte[] digest(final Document document, final Digest digest) throws Exception {
+        return digest.hash(writer -> canonize(document, writer));
+    }
+
+    static void canonize(final Document document, final Writer writer) throws Exception {
+        try (final Metrics.Phase phase = Metrics.phase("canonicalize")) {
+            JsonCanonicalizer.canonize(
+                    document.getJsonContent()
+                            .orElseThrow(() -> new IllegalArgumentException("Invalid input document. JSON document expected but got [" + document.getContentType() + "].")),
+                    writer);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,164 @@
+package com.apicatalog.cli.command;
+
+import java.io.BufferedWriter;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.util.concurrent.Callable;
+
+import com.apicatalog.cli.canon.CanonBudget;
+import com.apicatalog.cli.codec.Digest;
+import com.apicatalog.cli.loader.Loaders;
+import com.apicatalog.cli.metrics.Metrics;
+import com.apicatalog.cli.mixin.BatchOptions;
+import com.apicatalog.cli.mixin.CommandOptions;
+import com.apicatalog.cli.mixin.JsonInput;
+import com.apicatalog.cli.mixin.NdJsonInput;
+import com.apicatalog.cli.mixin.Output;
+import com.apicatalog.jsonld.JsonLd;
+import com.apicatalog.jsonld.JsonLdOptions.RdfDirection;
+import com.apicatalog.jsonld.JsonLdVersion;
+import com.apicatalog.jsonld.api.ToRdfApi;
+import com.apicatalog.jsonld.document.Document;
+import com.apicatalog.multibase.Multibase;
+import com.apicatalog.multibase.MultibaseDecoder;
+import com.apicatalog.rdf.canon.RdfCanon;
+import com.apicatalog.rdf.nquads.NQuadsWriter;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Spec;
+
+@Command(name = "ldhash", mixinStandardHelpOptions = false, description = "Hash a JSON-LD document transformed into RDF and canonized using RDFC-1.0 in a single pass.", sortOptions = true, descriptionHeading = "%n", parameterListHeading = "%nParameters:%n", optionListHeading = "%nOptions:%n")
+public final class LdHashCmd implements Callable<Integer> {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    @Mixin
+    JsonInput input;
+
+    @Option(names = { "-c", "--context" }, description = "Context URI or file path.", paramLabel = "<uri|file>")
+    URI context = null;
+
+    @Option(names = { "-b", "--base" }, description = "Base URI of the input document.", paramLabel = "<uri>")
+    URI base = null;
+
+    @Option(names = { "-m", "--mode" }, description = "Processing mode.", paramLabel = "1.0|1.1")
+    String mode = "1.1";
+
+    @Option(names = { "--direction" }, description = "Determine how base direction in value objects is represented.", paramLabel = "I18N_DATATYPE|COMPOUND_LITERAL")
+    String rdfDirection;
+
+    @Option(names = { "-d", "--digest" }, description = "Digest algorithm used by RDFC-1.0, as by rdfc (default: SHA256).", paramLabel = "SHA256|SHA384")
+    String digest = "SHA256";
+
+    @Option(names = { "--hash" }, description = "Hash of the canonical N-Quads (default: the --digest algorithm).", paramLabel = "SHA256|SHA384|multihash")
+    Digest hash = null;
+
+    @Option(names = { "--multibase" }, description = "Encode the digest using multibase, e.g. base58btc, lower case hexadecimal if not set.", paramLabel = "<base>")
+    String multibase = null;
+
+    @Option(names = { "-t", "--timeout" }, description = "Canonicalization timeout in milliseconds (default: 10000 = 10s), 0 to disable.", paramLabel = "<milliseconds>")
+    long timeout = 10 * 1000;
+
+    @Option(names = { "--max-steps" }, description = "Terminates canonicalization of a document after the number of blank node hashing and permutation steps, 0 for no limit (default: 0).", paramLabel = "<count>")
+    long maxSteps = 0;
+
+    @Option(names = { "--max-blank-nodes" }, description = "Rejects a document with more distinct blank nodes, 0 for no limit (default: 0).", paramLabel = "<count>")
+    long maxBlankNodes = 0;
+
+    @Mixin
+    Output output;
+
+    @Mixin
+    BatchOptions batch;
+
+    @Mixin
+    NdJsonInput ndjson;
+
+    @Mixin
+    CommandOptions options;
+
+    @Spec
+    CommandSpec spec;
+
+    private LdHashCmd() {
+    }
+
+    @Override
+    public Integer call() throws Exception {
+
+        final Multibase encoding = multibase != null
+                ? MultibaseDecoder.getInstance().findBase(multibase)
+                        .orElseThrow(() -> new IllegalArgumentException("Unsupported base " + multibase + ". List supported bases with multibase --list."))
+                : null;
+
+        final Document expandContext = context != null
+                ? JsonInput.fetch(context)
+                : null;
+
+        if (batch.isEnabled()) {
+            return batch.digest(spec, output, document -> Digest.encode(hash(JsonInput.fetch(document), expandContext), encoding));
+        }
+
+        if (ndjson.isEnabled()) {
+            return ndjson.process(spec, output, batch.threads, document -> Digest.encode(hash(document, expandContext), encoding));
+        }
+
+        try (final PrintWriter writer = output.writer()) {
+            writer.println(Digest.encode(hash(input.fetch(), expandContext), encoding));
+        }
+
+        return spec.exitCodeOnSuccess();
+    }
+
+    /**
+     * Feeds quads emitted by the JSON-LD to RDF transformation straight into
+     * the canonicalization, the canonical N-Quads are hashed while they are
+     * written. Neither the dataset nor N-Quads text is materialized.
+     */
+    byte[] hash(Document document, Document expandContext) throws Exception {
+
+        final CanonBudget budget = new CanonBudget(maxSteps, maxBlankNodes, timeout, false);
+
+        final boolean sha384 = "SHA384".equalsIgnoreCase(digest);
+
+        final RdfCanon canon = RdfCanon.create(sha384 ? "SHA-384" : "SHA-256", budget);
+
+        try (final Metrics.Phase phase = Metrics.phase("tordf")) {
+            api(document, expandContext).provide(budget.consumer(canon));
+        }
+
+        try (final Metrics.Phase phase = Metrics.phase("canonicalize")) {
+            return (hash != null ? hash : sha384 ? Digest.SHA384 : Digest.SHA256).hash(writer -> {
+                final BufferedWriter buffered = new BufferedWriter(writer, BUFFER_SIZE);
+                canon.provide(new NQuadsWriter(buffered));
+                buffered.flush();
+            });
+        }
+    }
+
+    ToRdfApi api(Document document, Document expandContext) {
+
+        // blank node predicates are not valid RDF and cannot be canonized
+        final ToRdfApi api = JsonLd.toRdf(document)
+                .options(Loaders.options())
+                .base(base)
+                .produceGeneralizedRdf(false);
+
+        if (mode != null) {
+            api.mode(JsonLdVersion.of("json-ld-" + mode));
+        }
+
+        if (expandContext != null) {
+            api.context(expandContext);
+        }
+
+        if (rdfDirection != null) {
+            api.rdfDirection(RdfDirection.valueOf(rdfDirection.toUpperCase()));
+        }
+
+        return api;
+    }
+}
@@ -1,13 +1,24 @@
 package com.apicatalog.cli.command;
 
-import java.io.FileOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Optional;
 import java.util.concurrent.Callable;
 
+import com.apicatalog.base.Base16;
 import com.apicatalog.cborld.hex.Hex;
+import com.apicatalog.cli.codec.BlockMultibase;
+import com.apicatalog.cli.mixin.BinaryOutput;
 import com.apicatalog.cli.mixin.ByteInput;
 import com.apicatalog.cli.mixin.CommandOptions;
+import com.apicatalog.cli.mixin.LineInput;
+import com.apicatalog.cli.mixin.Output.Encoding;
 import com.apicatalog.multibase.Multibase;
 import com.apicatalog.multibase.MultibaseDecoder;
 
@@ -43,12 +54,20 @@ public final class MultibaseCmd implements Callable<Integer> {
     @ArgGroup(exclusive = true, multiplicity = "1")
     ModeGroup mode;
 
-    @Option(names = { "-o", "--output" }, description = "Output file.", paramLabel = "<file>")
-    String output = null;
+    @Mixin
+    BinaryOutput output;
+
+    @Option(names = { "-o" }, description = "Output file name, same as --output.", paramLabel = "<file>")
+    void outputFile(Path file) {
+        output.file = file;
+    }
 
     @Mixin
     ByteInput input;
 
+    @Mixin
+    LineInput lines;
+
     @Mixin
     CommandOptions options;
 
@@ -84,21 +103,32 @@ public final class MultibaseCmd implements Callable<Integer> {
             return spec.exitCodeOnSuccess();
         }
 
-        if (mode.decode) {
-            var document = input.fetch();
-
-            var decoded = DECODER.decode(new String(document, StandardCharsets.UTF_8).strip());
+        if (lines.isEnabled()) {
+            return lines();
+        }
 
-            if (output != null) {
-                try (var os = new FileOutputStream(output)) {
-                    os.write(decoded);
-                    os.flush();
+        if (mode.decode) {
+            final byte[] document;
+
+            try (var in = input.channel()) {
+                final ByteBuffer buffer = BlockMultibase.buffer();
+                final int prefix = BlockMultibase.prefix(in, buffer);
+                final Optional<BlockMultibase> block = block(prefix);
+
+                if (block.isPresent()) {
+                    try (var out = output.open(output.encoding(Encoding.RAW))) {
+                        block.get().decode(buffer, in, out::write);
+                    }
+                    return spec.exitCodeOnSuccess();
                 }
 
-            } else {
-                System.out.write(decoded);
+                document = readAll(prefix, buffer, in);
             }
 
+            output.write(
+                    DECODER.decode(new String(document, StandardCharsets.UTF_8).strip()),
+                    output.encoding(Encoding.RAW));
+
             return spec.exitCodeOnSuccess();
         }
 
@@ -107,19 +137,17 @@ public final class MultibaseCmd implements Callable<Integer> {
             final Multibase base = DECODER.findBase(mode.encode)
                     .orElseThrow(() -> new IllegalArgumentException("Unsupported base " + mode.encode + ". List supported bases with --list."));
 
-            var encoded = base.encode(input.fetch());
-            
-            if (output != null) {
-                try (var os = new FileOutputStream(output)) {
-                    os.write(encoded.getBytes(StandardCharsets.UTF_8));
-                    os.flush();
-                }
+            final Optional<BlockMultibase> block = BlockMultibase.of(base);
 
-            } else {
-                spec.commandLine().getOut().print(encoded);
-                spec.commandLine().getOut().flush();
+            if (block.isPresent()) {
+                try (var in = input.channel(); var out = output.open()) {
+                    block.get().encode(in, Channels.newChannel(out));
+                }
+                return spec.exitCodeOnSuccess();
             }
 
+            output.write(base.encode(input.fetch()).getBytes(StandardCharsets.UTF_8), Encoding.RAW);
+
             return spec.exitCodeOnSuccess();
         }
 
@@ -127,23 +155,30 @@ public final class MultibaseCmd implements Callable<Integer> {
             final Multibase base =  DECODER.findBase(mode.rebase)
                     .orElseThrow(() -> new IllegalArgumentException("Unsupported base " + mode.rebase + ". List supported bases with --list."));
 
-            var document = input.fetch();
-
-            var decoded = DECODER.decode(new String(document, StandardCharsets.UTF_8).strip());
-
-            var encoded = base.encode(decoded);
-
-            if (output != null) {
-                try (var os = new FileOutputStream(output)) {
-                    os.write(encoded.getBytes(StandardCharsets.UTF_8));
-                    os.flush();
+            final byte[] document;
+
+            try (var in = input.channel()) {
+                final ByteBuffer buffer = BlockMultibase.buffer();
+                final int prefix = BlockMultibase.prefix(in, buffer);
+                final Optional<BlockMultibase> source = block(prefix);
+                final Optional<BlockMultibase> target = BlockMultibase.of(base);
+
+                if (source.isPresent() && target.isPresent()) {
+                    try (var out = output.open()) {
+                        final var encoder = target.get().encoder(Channels.newChannel(out));
+                        source.get().decode(buffer, in, data -> encoder.write(data, 0, data.length));
+                        encoder.close();
+                    }
+                    return spec.exitCodeOnSuccess();
                 }
 
-            } else {
-                spec.commandLine().getOut().print(encoded);
-                spec.commandLine().getOut().flush();
+                document = readAll(prefix, buffer, in);
             }
 
+            var decoded = DECODER.decode(new String(document, StandardCharsets.UTF_8).strip());
+
+            output.write(base.encode(decoded).getBytes(StandardCharsets.UTF_8), Encoding.RAW);
+
             return spec.exitCodeOnSuccess();
         }
 
@@ -160,14 +195,8 @@ public final class MultibaseCmd implements Callable<Integer> {
                 decoded = base.get().decode(encoded);
             }
 
-            if (output != null) {
-                try (var printer = new PrintWriter(new FileOutputStream(output))) {
-                    print(printer, base.orElse(null), document, decoded);
-                    printer.flush();
-                }
-
-            } else {
-                print(spec.commandLine().getOut(), base.orElse(null), document, decoded);
+            try (var printer = output.writer()) {
+                print(printer, base.orElse(null), document, decoded);
             }
 
             return spec.exitCodeOnSuccess();
@@ -177,6 +206,65 @@ public final class MultibaseCmd implements Callable<Integer> {
         return spec.exitCodeOnUsageHelp();
     }
 
+    static final String[] ANALYSIS = { "input", "base", "prefix", "length" };
+
+    /**
+     * Processes each line as a separate value, raw bytes are hex-encoded.
+     */
+    int lines() throws Exception {
+
+        if (mode.analyze) {
+            return lines.analyze(spec, input, output, ANALYSIS, line -> {
+                final String value = line.strip();
+                final Optional<Multibase> base = DECODER.getBase(value.charAt(0));
+                if (base.isEmpty()) {
+                    return new Object[] { value, null, null, null };
+                }
+                return new Object[] { value, base.get().name(), base.get().prefix(), base.get().decode(value).length };
+            });
+        }
+
+        if (mode.decode) {
+            return lines.process(spec, input, output,
+                    line -> Base16.encode(DECODER.decode(line.strip()), Base16.ALPHABET_LOWER));
+        }
+
+        if (mode.encode != null) {
+            final Multibase base = DECODER.findBase(mode.encode)
+                    .orElseThrow(() -> new IllegalArgumentException("Unsupported base " + mode.encode + ". List supported bases with --list."));
+
+            return lines.process(spec, input, output,
+                    line -> base.encode(Base16.decode(line.strip())));
+        }
+
+        if (mode.rebase != null) {
+            final Multibase base = DECODER.findBase(mode.rebase)
+                    .orElseThrow(() -> new IllegalArgumentException("Unsupported base " + mode.rebase + ". List supported bases with --list."));
+
+            return lines.process(spec, input, output,
+                    line -> base.encode(DECODER.decode(line.strip())));
+        }
+
+        spec.commandLine().usage(spec.commandLine().getOut());
+        return spec.exitCodeOnUsageHelp();
+    }
+
+    static Optional<BlockMultibase> block(int prefix) {
+        return prefix != -1
+                ? DECODER.getBase((char) prefix).flatMap(BlockMultibase::of)
+                : Optional.empty();
+    }
+
+    static byte[] readAll(int prefix, ByteBuffer buffer, ReadableByteChannel input) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        if (prefix != -1) {
+            bytes.write(prefix);
+        }
+        bytes.write(buffer.array(), buffer.position(), buffer.remaining());
+        Channels.newInputStream(input).transferTo(bytes);
+        return bytes.toByteArray();
+    }
+
     static final void print(PrintWriter printer, Multibase base, byte[] document, byte[] decoded) {
         if (base != null) {
             print(printer, base);
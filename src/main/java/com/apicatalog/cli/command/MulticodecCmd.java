@@ -1,16 +1,21 @@
 package com.apicatalog.cli.command;
 
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.stream.Stream;
 
+import com.apicatalog.base.Base16;
 import com.apicatalog.cborld.hex.Hex;
+import com.apicatalog.cli.codec.MulticodecIndex;
+import com.apicatalog.cli.mixin.BinaryOutput;
 import com.apicatalog.cli.mixin.ByteInput;
 import com.apicatalog.cli.mixin.CommandOptions;
+import com.apicatalog.cli.mixin.LineInput;
+import com.apicatalog.cli.mixin.Output.Encoding;
 import com.apicatalog.multibase.Multibase;
 import com.apicatalog.multibase.MultibaseDecoder;
 import com.apicatalog.multicodec.Multicodec;
@@ -30,12 +35,16 @@ import picocli.CommandLine.Spec;
 public final class MulticodecCmd implements Callable<Integer> {
 
     static final MulticodecDecoder DECODER = MulticodecDecoder.newInstance();
+    static final MulticodecIndex INDEX = MulticodecIndex.getInstance();
     static final MultibaseDecoder MULTIBASE = MultibaseDecoder.getInstance();
 
     static class ModeGroup {
         @Option(names = { "-e", "--enrich" }, description = "Prepend multicodec header to raw input.", paramLabel = "<codec>")
         String enrich;
 
+        @Option(names = { "--codec-code" }, description = "Prepend multicodec header given by a codec code to raw input.", paramLabel = "<code>")
+        Long code;
+
         @Option(names = { "-s", "--strip" }, description = "Remove multicodec (and optional multibase) header.")
         boolean strip;
 
@@ -58,12 +67,20 @@ public final class MulticodecCmd implements Callable<Integer> {
     @Option(names = { "--output-multibase" }, description = "Encode output using multibase.", paramLabel = "<base>")
     String outputBase = null;
 
-    @Option(names = { "-o", "--output" }, description = "Output file.", paramLabel = "<file>")
-    String output = null;
+    @Mixin
+    BinaryOutput output;
+
+    @Option(names = { "-o" }, description = "Output file name, same as --output.", paramLabel = "<file>")
+    void outputFile(Path file) {
+        output.file = file;
+    }
 
     @Mixin
     ByteInput input;
 
+    @Mixin
+    LineInput lines;
+
     @Mixin
     CommandOptions options;
 
@@ -115,6 +132,10 @@ public final class MulticodecCmd implements Callable<Integer> {
             return spec.exitCodeOnSuccess();
         }
 
+        if (lines.isEnabled()) {
+            return lines();
+        }
+
         var document = input.fetch();
         String based = null;
         Optional<Multibase> base = Optional.empty();
@@ -136,7 +157,7 @@ public final class MulticodecCmd implements Callable<Integer> {
         }
 
         if (mode.analyze) {
-            var codec = DECODER.getCodec(document);
+            var codec = INDEX.codec(document);
 
             byte[] decoded = null;
 
@@ -144,35 +165,21 @@ public final class MulticodecCmd implements Callable<Integer> {
                 decoded = codec.get().decode(document);
             }
 
-            if (output != null) {
-                try (var printer = new PrintWriter(new FileOutputStream(output))) {
-                    base.ifPresent(b -> MultibaseCmd.print(printer, b));
-                    print(printer, codec.orElse(null), base.orElse(null), based, document, decoded);
-                    printer.flush();
-                }
-
-            } else {
-                base.ifPresent(b -> MultibaseCmd.print(spec.commandLine().getOut(), b));
-                print(spec.commandLine().getOut(), codec.orElse(null), base.orElse(null), based, document, decoded);
+            try (var printer = output.writer()) {
+                base.ifPresent(b -> MultibaseCmd.print(printer, b));
+                print(printer, codec.orElse(null), base.orElse(null), based, document, decoded);
             }
 
             return spec.exitCodeOnSuccess();
         }
 
         if (mode.strip) {
-            output(DECODER.decode(document));
+            output(strip(document));
             return spec.exitCodeOnSuccess();
         }
 
-        if (mode.enrich != null) {
-            // TODO improve when fixed
-            // https://github.com/filip26/copper-multicodec/issues/107
-            var codec = DECODER.getRegistry().codecs().values().stream()
-                    .filter(c -> c.name().equals(mode.enrich))
-                    .findFirst()
-                    .orElseThrow(() -> new IllegalArgumentException("Unsupported codec " + mode.enrich + ". List supported codecs with multicodec --list."));
-
-            output(codec.encode(document));
+        if (mode.enrich != null || mode.code != null) {
+            output(codec().encode(document));
 
             return spec.exitCodeOnSuccess();
         }
@@ -181,29 +188,105 @@ public final class MulticodecCmd implements Callable<Integer> {
         return spec.exitCodeOnUsageHelp();
     }
 
-    void output(byte[] encoded) throws IOException {
-        if (outputBase != null) {
-            // TODO improve when fixed https://github.com/filip26/copper-multibase/issues/97
-            print(Stream.of(Multibase.provided())
-                    .filter(b -> b.name().equals(outputBase))
-                    .findFirst()
-                    .map(b -> b.encode(encoded).getBytes(StandardCharsets.UTF_8))
-                    .orElseThrow(() -> new IllegalArgumentException("Unsupported base " + mode.enrich + ". List supported bases with multibase --list.")));
-            return;
+    static final String[] ANALYSIS = { "input", "multibase", "codec", "code", "tag", "status", "length" };
+
+    /**
+     * Processes each line as a separate value, raw bytes are hex-encoded unless
+     * --multibase or --output-multibase is set.
+     */
+    int lines() throws Exception {
+
+        final Multibase target = outputBase != null ? base(outputBase) : null;
+
+        if (mode.analyze) {
+            return lines.analyze(spec, input, output, ANALYSIS, line -> {
+                final String value = line.strip();
+
+                Multibase base = null;
+                final byte[] document;
+
+                if (multibase) {
+                    base = MULTIBASE.getBase(value).orElse(null);
+                    if (base == null) {
+                        return new Object[] { value, null, null, null, null, null, null };
+                    }
+                    document = base.decode(value);
+
+                } else {
+                    document = Base16.decode(value);
+                }
+
+                final String baseName = base != null ? base.name() : null;
+
+                final Optional<Multicodec> codec = INDEX.codec(document);
+                if (codec.isEmpty()) {
+                    return new Object[] { value, baseName, null, null, null, null, document.length };
+                }
+
+                return new Object[] {
+                        value,
+                        baseName,
+                        codec.get().name(),
+                        codec.get().code(),
+                        codec.get().tag(),
+                        codec.get().status(),
+                        codec.get().decode(document).length
+                };
+            });
+        }
+
+        if (mode.strip) {
+            return lines.process(spec, input, output, line -> encode(target, strip(decode(line))));
+        }
+
+        if (mode.enrich != null || mode.code != null) {
+            final Multicodec codec = codec();
+            return lines.process(spec, input, output, line -> encode(target, codec.encode(decode(line))));
         }
-        print(encoded);
+
+        spec.commandLine().usage(spec.commandLine().getOut());
+        return spec.exitCodeOnUsageHelp();
     }
 
-    void print(byte[] result) throws IOException {
-        if (output != null) {
-            try (var os = new FileOutputStream(output)) {
-                os.write(result);
-                os.flush();
-            }
+    byte[] decode(String line) {
+        final String value = line.strip();
+        return multibase
+                ? MULTIBASE.decode(value)
+                : Base16.decode(value);
+    }
 
-        } else {
-            System.out.write(result);
+    static String encode(Multibase base, byte[] data) {
+        return base != null
+                ? base.encode(data)
+                : Base16.encode(data, Base16.ALPHABET_LOWER);
+    }
+
+    Multicodec codec() {
+        if (mode.code != null) {
+            return INDEX.codec(mode.code)
+                    .orElseThrow(() -> new IllegalArgumentException("Unsupported codec code " + mode.code + ". List supported codecs with multicodec --list."));
+        }
+        return INDEX.codec(mode.enrich)
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported codec " + mode.enrich + ". List supported codecs with multicodec --list."));
+    }
+
+    static byte[] strip(byte[] document) {
+        return INDEX.codec(document)
+                .orElseThrow(() -> new IllegalArgumentException("Unrecognized codec " + UVarInt.decode(document) + "."))
+                .decode(document);
+    }
+
+    static Multibase base(String name) {
+        return INDEX.base(name)
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported base " + name + ". List supported bases with multibase --list."));
+    }
+
+    void output(byte[] encoded) throws IOException {
+        if (outputBase != null) {
+            output.write(base(outputBase).encode(encoded).getBytes(StandardCharsets.UTF_8), Encoding.RAW);
+            return;
         }
+        output.write(encoded, output.encoding(Encoding.RAW));
     }
 
     static final void print(PrintWriter printer, Multicodec codec, Multibase base, String encoded, byte[] document, byte[] decoded) {
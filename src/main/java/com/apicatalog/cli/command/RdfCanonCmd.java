@@ -1,24 +1,30 @@
 package com.apicatalog.cli.command;
 
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
 import java.io.Reader;
+import java.io.Writer;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.concurrent.Callable;
 
+import com.apicatalog.cli.WorkingDirectory;
+import com.apicatalog.cli.canon.CanonBudget;
+import com.apicatalog.cli.canon.IncrementalCanon;
+import com.apicatalog.cli.canon.MappedNQuadsReader;
+import com.apicatalog.cli.canon.SplitCanon;
+import com.apicatalog.cli.codec.Digest;
+import com.apicatalog.cli.loader.Loaders;
+import com.apicatalog.cli.metrics.Metrics;
+import com.apicatalog.cli.mixin.BatchOptions;
+import com.apicatalog.cli.mixin.ByteInput;
 import com.apicatalog.cli.mixin.CommandOptions;
-import com.apicatalog.jsonld.document.Document;
-import com.apicatalog.jsonld.http.media.MediaType;
-import com.apicatalog.jsonld.loader.DocumentLoaderOptions;
-import com.apicatalog.jsonld.loader.HttpLoader;
-import com.apicatalog.jsonld.loader.SchemeRouter;
-import com.apicatalog.rdf.RdfResource;
+import com.apicatalog.cli.mixin.CompressedInput;
+import com.apicatalog.cli.mixin.Output;
+import com.apicatalog.rdf.api.RdfQuadConsumer;
 import com.apicatalog.rdf.canon.RdfCanon;
-import com.apicatalog.rdf.canon.RdfCanonTicker;
-import com.apicatalog.rdf.canon.RdfCanonTimeTicker;
-import com.apicatalog.rdf.nquads.NQuadsAlphabet;
 import com.apicatalog.rdf.nquads.NQuadsReader;
 import com.apicatalog.rdf.nquads.NQuadsWriter;
 
@@ -37,9 +43,36 @@ public final class RdfCanonCmd implements Callable<Integer> {
     @Option(names = { "-t", "--timeout" }, description = "Timeout in milliseconds (default: 10000 = 10s). Terminates processing after the specified time.", paramLabel = "<milliseconds>")
     long timeout = 10 * 1000;
 
+    @Option(names = { "--max-steps" }, description = "Terminates canonicalization of a dataset after the number of blank node hashing and permutation steps, 0 for no limit (default: 0).", paramLabel = "<count>")
+    long maxSteps = 0;
+
+    @Option(names = { "--max-blank-nodes" }, description = "Rejects a dataset with more distinct blank nodes, 0 for no limit (default: 0).", paramLabel = "<count>")
+    long maxBlankNodes = 0;
+
+    @Option(names = { "--budget-report" }, description = "Report quads, blank nodes, canonicalization steps and time consumed by each dataset to the error output.")
+    boolean budgetReport = false;
+
     @Option(names = { "-d", "--digest" }, description = "Digest algorithm to use.", paramLabel = "SHA256|SHA384")
     String digest = "SHA256";
 
+    @Option(names = { "--parallel" }, description = "Canonicalize only quads with blank nodes, sort ground quads in parallel and merge them into the output.")
+    boolean parallel = false;
+
+    @Option(names = { "--progress" }, description = "Report progress to the error output, implies --parallel.")
+    boolean progress = false;
+
+    @Option(names = { "--state" }, description = "Persist the canonical form to the state file to allow incremental updates with --delta.", paramLabel = "<file>")
+    Path state = null;
+
+    @Option(names = { "--delta" }, description = "The input is a delta added to the dataset persisted in the --state file. Blank nodes labeled as in the canonical output refer to existing nodes.")
+    boolean delta = false;
+
+    @Mixin
+    Output output;
+
+    @Mixin
+    BatchOptions batch;
+
     @Mixin
     CommandOptions options;
 
@@ -52,83 +85,166 @@ public final class RdfCanonCmd implements Callable<Integer> {
     @Override
     public Integer call() throws Exception {
 
-        String hashAlgo = "SHA-256";
-        if ("SHA384".equalsIgnoreCase(digest)) {
-            hashAlgo = "SHA-384";
+        if (delta && state == null) {
+            throw new IllegalArgumentException("A delta requires a canonicalization state. Use --state.");
+        }
+
+        if (state != null) {
+            if (batch.isEnabled()) {
+                throw new IllegalArgumentException("A canonicalization state cannot be used with --batch.");
+            }
+            return update();
+        }
+
+        if (batch.isEnabled()) {
+            return batch.process(spec, ".nq", (document, os) -> {
+                final CanonBudget budget = budget();
+                final RdfCanon canon = canon(budget);
+                if (parallel) {
+                    final SplitCanon split = new SplitCanon(canon, null);
+                    read(document, budget.consumer(split));
+                    try (final Metrics.Phase phase = Metrics.phase("canonicalize")) {
+                        split.write(new OutputStreamWriter(os, StandardCharsets.UTF_8));
+                    }
+                    report(document.toString(), budget);
+                    return;
+                }
+                read(document, budget.consumer(canon));
+                final Writer writer = new OutputStreamWriter(os, StandardCharsets.UTF_8);
+                try (final Metrics.Phase phase = Metrics.phase("canonicalize")) {
+                    canon.provide(new NQuadsWriter(writer));
+                }
+                writer.flush();
+                report(document.toString(), budget);
+            });
         }
 
-        RdfCanonTicker ticker = timeout > 0
-                ? new RdfCanonTimeTicker(timeout)
-                : RdfCanonTicker.EMPTY;
+        final CanonBudget budget = budget();
+        final RdfCanon canon = canon(budget);
 
-        RdfCanon canon = RdfCanon.create(hashAlgo, ticker);
+        final SplitCanon split = parallel || progress
+                ? new SplitCanon(canon, progress ? spec.commandLine().getErr() : null)
+                : null;
 
-        if (input != null) {
-            if (input.isAbsolute()) {
-
-                ((HttpLoader) HttpLoader.defaultInstance()).fallbackContentType(MediaType.N_QUADS);
-
-                var loader = SchemeRouter.defaultInstance();
-                Document document = loader.loadDocument(input, new DocumentLoaderOptions());
-                document.getRdfContent()
-                        .orElseThrow(() -> new IllegalArgumentException("Invalid input document. N-QUADS document expected but got [" + document.getContentType() + "]."))
-                        .toList().forEach(s -> {
-                            if (s.getObject().isLiteral()) {
-                                var literal = s.getObject().asLiteral();
-
-                                var datatype = literal.getDatatype();
-                                var language = literal.getLanguage().orElse(null);
-                                String direction = null;
-
-                                if (datatype.startsWith(NQuadsAlphabet.I18N_BASE)) {
-
-                                    datatype = NQuadsAlphabet.I18N_BASE;
-
-                                    String[] langDir = datatype.substring(NQuadsAlphabet.I18N_BASE.length()).split("_");
-
-                                    if (langDir.length > 1) {
-                                        direction = langDir[1];
-                                    }
-                                    if (langDir.length > 0) {
-                                        language = langDir[0];
-                                    }
-                                }
-
-                                canon.quad(
-                                        s.getSubject().getValue(),
-                                        s.getPredicate().getValue(),
-                                        s.getObject().getValue(),
-                                        datatype,
-                                        language,
-                                        direction,
-                                        s.getGraphName().map(RdfResource::getValue).orElse(null));
-                                return;
-                            }
-                            canon.quad(
-                                    s.getSubject().getValue(),
-                                    s.getPredicate().getValue(),
-                                    s.getObject().getValue(),
-                                    null,
-                                    null,
-                                    null,
-                                    s.getGraphName().map(RdfResource::getValue).orElse(null));
-                        });
+        final RdfQuadConsumer consumer = split != null ? split : canon;
+
+        read(budget.consumer(consumer));
+
+        try (final Writer writer = output.writer();
+                final Metrics.Phase phase = Metrics.phase("canonicalize")) {
+            if (split != null) {
+                split.write(writer);
 
             } else {
-                try (final Reader reader = Files.newBufferedReader(Path.of(input.toString()), StandardCharsets.UTF_8)) {
-                    new NQuadsReader(reader).provide(canon);
+                canon.provide(new NQuadsWriter(writer));
+            }
+        }
+
+        report("Dataset", budget);
+
+        return spec.exitCodeOnSuccess();
+    }
+
+    /**
+     * Canonicalizes the input, or the dataset persisted in the state extended
+     * by the input delta, and persists the new state.
+     */
+    Integer update() throws Exception {
+
+        final String algorithm = hashAlgorithm();
+
+        final IncrementalCanon incremental = delta
+                ? IncrementalCanon.load(state, algorithm)
+                : IncrementalCanon.create(algorithm);
+
+        final CanonBudget budget = budget();
+
+        read(budget.consumer(incremental));
+
+        final IncrementalCanon.Update update;
+
+        try (final Writer writer = output.writer();
+                final Metrics.Phase phase = Metrics.phase("canonicalize")) {
+            update = incremental.write(writer, state, () -> canon(budget));
+        }
+
+        report("Delta", budget);
+
+        final PrintWriter err = spec.commandLine().getErr();
+        err.println("Canonicalized " + update.ground() + " ground quads and " + update.blank() + " quads with blank nodes, "
+                + (update.relabeled() ? "blank nodes relabeled." : "blank node labels reused."));
+        err.println("Dataset hash: " + Digest.encode(update.hash(), null));
+        err.flush();
+
+        return spec.exitCodeOnSuccess();
+    }
+
+    void read(RdfQuadConsumer consumer) throws Exception {
+
+        if (input != null) {
+            if (input.isAbsolute() && "file".equalsIgnoreCase(input.getScheme())) {
+                read(Path.of(input), consumer);
+
+            } else if (input.isAbsolute()) {
+
+                Loaders.requireOnline(input);
+
+                try (final Metrics.Phase phase = Metrics.phase("read");
+                        final Reader reader = new InputStreamReader(ByteInput.fetchHttp(input), StandardCharsets.UTF_8)) {
+                    new NQuadsReader(reader).provide(consumer);
                 }
+
+            } else {
+                read(WorkingDirectory.resolve(input.toString()), consumer);
             }
 
         } else {
-            try (final Reader reader = new InputStreamReader(System.in)) {
-                new NQuadsReader(reader).provide(canon);
+            try (final Metrics.Phase phase = Metrics.phase("read");
+                    final Reader reader = new InputStreamReader(CompressedInput.of(System.in), StandardCharsets.UTF_8)) {
+                new NQuadsReader(reader).provide(consumer);
             }
         }
+    }
 
-        canon.provide(new NQuadsWriter(spec.commandLine().getOut()));
-        spec.commandLine().getOut().flush();
+    /**
+     * Reads a local file, memory-mapped or, if it is compressed, decompressed
+     * on the fly.
+     */
+    static void read(Path path, RdfQuadConsumer consumer) throws Exception {
+        try (final Metrics.Phase phase = Metrics.phase("read")) {
 
-        return spec.exitCodeOnSuccess();
+            if (!CompressedInput.isCompressed(path)) {
+                MappedNQuadsReader.read(path, consumer);
+                return;
+            }
+
+            try (final Reader reader = new InputStreamReader(CompressedInput.open(path), StandardCharsets.UTF_8)) {
+                new NQuadsReader(reader).provide(consumer);
+            }
+        }
+    }
+
+    String hashAlgorithm() {
+        return "SHA384".equalsIgnoreCase(digest)
+                ? "SHA-384"
+                : "SHA-256";
+    }
+
+    CanonBudget budget() {
+        return new CanonBudget(maxSteps, maxBlankNodes, timeout, budgetReport);
+    }
+
+    RdfCanon canon(CanonBudget budget) {
+        return RdfCanon.create(hashAlgorithm(), budget);
+    }
+
+    void report(String dataset, CanonBudget budget) {
+        if (budgetReport) {
+            final PrintWriter err = spec.commandLine().getErr();
+            synchronized (err) {
+                err.println(dataset + ": " + budget.report() + ".");
+                err.flush();
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,161 @@
+package com.apicatalog.cli.command;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import com.apicatalog.cli.App;
+import com.apicatalog.cli.daemon.DaemonServer;
+import com.apicatalog.cli.loader.ContextPack;
+import com.apicatalog.cli.loader.Loaders;
+import com.apicatalog.cli.loader.MemoryCacheLoader;
+import com.apicatalog.cli.metrics.Metrics;
+import com.apicatalog.cli.mixin.CommandOptions;
+import com.apicatalog.jsonld.http.media.MediaType;
+import com.apicatalog.jsonld.loader.HttpLoader;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Spec;
+
+@Command(name = "serve", mixinStandardHelpOptions = false, description = "Run as a daemon keeping loaded contexts warm. Set LD_CLI_SOCKET to forward invocations to the daemon.", sortOptions = true, descriptionHeading = "%n", parameterListHeading = "%nParameters:%n", optionListHeading = "%nOptions:%n")
+public final class ServeCmd implements Callable<Integer> {
+
+    public static final String NAME = "serve";
+
+    /** An environment variable enabling the client mode. */
+    public static final String SOCKET_ENV = "LD_CLI_SOCKET";
+
+    @Option(names = { "-s", "--socket" }, description = "Unix domain socket path (default: $LD_CLI_SOCKET or ${java.io.tmpdir}/ld-cli-${user.name}/daemon.sock).", paramLabel = "<file>")
+    Path socket = null;
+
+    @Option(names = { "--cache-size" }, description = "Maximum number of documents kept in memory (default: 256).", paramLabel = "<count>")
+    int cacheSize = 256;
+
+    @Option(names = { "--metrics-port" }, description = "Serve cumulative metrics of all invocations in the Prometheus text format at http://localhost:<port>/metrics.", paramLabel = "<port>")
+    Integer metricsPort = null;
+
+    @Mixin
+    CommandOptions options;
+
+    /** The daemon offline mode and context packs restored before each invocation. */
+    static boolean offline = false;
+    static List<ContextPack> packs = List.of();
+
+    @Spec
+    CommandSpec spec;
+
+    private ServeCmd() {
+    }
+
+    @Override
+    public Integer call() throws Exception {
+
+        if (socket == null) {
+            socket = defaultSocket();
+            // a shared temporary directory, other users must not reach the socket
+            DaemonServer.privateDirectory(socket.getParent());
+        }
+
+        offline = Loaders.isOffline();
+        packs = Loaders.packs();
+
+        Loaders.set(new MemoryCacheLoader(Loaders.cacheLoader(), cacheSize));
+
+        final HttpServer metrics = metricsPort != null
+                ? metrics(metricsPort)
+                : null;
+
+        try (final DaemonServer server = new DaemonServer(socket, ServeCmd::execute, System.err)) {
+
+            server.start();
+
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    server.close();
+                } catch (Exception e) {
+                    // ignore, shutting down
+                }
+            }));
+
+            spec.commandLine().getErr().println("Listening on " + socket + ", export " + SOCKET_ENV + "=" + socket + " to enable the client mode.");
+            spec.commandLine().getErr().flush();
+
+            if (metrics != null) {
+                spec.commandLine().getErr().println("Serving metrics at http://localhost:" + metrics.getAddress().getPort() + "/metrics.");
+                spec.commandLine().getErr().flush();
+            }
+
+            server.serve();
+
+        } finally {
+            if (metrics != null) {
+                metrics.stop(0);
+            }
+        }
+
+        return spec.exitCodeOnSuccess();
+    }
+
+    /**
+     * Starts a loopback HTTP endpoint serving metrics.
+     */
+    static HttpServer metrics(int port) throws IOException {
+
+        final HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+
+        server.createContext("/metrics", ServeCmd::metrics);
+        server.start();
+
+        return server;
+    }
+
+    static void metrics(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, 0);
+
+            final PrintWriter writer = new PrintWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8));
+            Metrics.snapshot().prometheus(writer);
+            writer.flush();
+
+        } finally {
+            exchange.close();
+        }
+    }
+
+    static int execute(Path directory, String[] args) {
+        if (args.length > 0 && NAME.equals(args[0])) {
+            System.err.println("A daemon cannot run another daemon.");
+            return 1;
+        }
+        // commands can alter the fallback content type, e.g. fromrdf, rdfc
+        ((HttpLoader) HttpLoader.defaultInstance()).fallbackContentType(MediaType.JSON);
+        Loaders.offline(offline);
+        Loaders.packs(packs);
+        return App.execute(args, directory);
+    }
+
+    public static Path defaultSocket() {
+        final String socket = System.getenv(SOCKET_ENV);
+        if (socket != null && !socket.isBlank()) {
+            return Path.of(socket);
+        }
+        return Path.of(System.getProperty("java.io.tmpdir"), "ld-cli-" + System.getProperty("user.name"), "daemon.sock");
+    }
+}
@@ -1,18 +1,26 @@
 package com.apicatalog.cli.command;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.Callable;
 
+import com.apicatalog.cli.loader.Loaders;
+import com.apicatalog.cli.metrics.Metrics;
+import com.apicatalog.cli.mixin.BatchOptions;
 import com.apicatalog.cli.mixin.CommandOptions;
 import com.apicatalog.cli.mixin.JsonInput;
+import com.apicatalog.cli.mixin.NdJsonInput;
+import com.apicatalog.cli.mixin.Output;
 import com.apicatalog.jsonld.JsonLd;
 import com.apicatalog.jsonld.JsonLdOptions.RdfDirection;
 import com.apicatalog.jsonld.JsonLdVersion;
 import com.apicatalog.jsonld.api.ToRdfApi;
-import com.apicatalog.jsonld.http.media.MediaType;
-import com.apicatalog.rdf.Rdf;
-import com.apicatalog.rdf.RdfDataset;
-import com.apicatalog.rdf.io.RdfWriter;
+import com.apicatalog.jsonld.document.Document;
+import com.apicatalog.rdf.nquads.NQuadsWriter;
 
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Mixin;
@@ -23,6 +31,8 @@ import picocli.CommandLine.Spec;
 @Command(name = "tordf", mixinStandardHelpOptions = false, description = "Transform a JSON-LD document into an RDF N-Quads document.", sortOptions = true, descriptionHeading = "%n", parameterListHeading = "%nParameters:%n", optionListHeading = "%nOptions:%n")
 public final class ToRdfCmd implements Callable<Integer> {
 
+    static final int BUFFER_SIZE = 64 * 1024;
+
     @Mixin
     JsonInput input;
 
@@ -45,6 +55,15 @@ public final class ToRdfCmd implements Callable<Integer> {
     @Option(names = { "-n", "--no-blanks" }, description = "Omit blank nodes for triple predicates.")
     boolean generalizedRdf = true;
 
+    @Mixin
+    Output output;
+
+    @Mixin
+    BatchOptions batch;
+
+    @Mixin
+    NdJsonInput ndjson;
+
     @Mixin
     CommandOptions options;
 
@@ -57,7 +76,49 @@ public final class ToRdfCmd implements Callable<Integer> {
     @Override
     public Integer call() throws Exception {
 
-        final ToRdfApi api = JsonLd.toRdf(input.fetch())
+        final Document expandContext = context != null
+                ? JsonInput.fetch(context)
+                : null;
+
+        if (batch.isEnabled()) {
+            return batch.process(spec, ".nq", (document, os) -> {
+                final Writer writer = new OutputStreamWriter(os, StandardCharsets.UTF_8);
+                toRdf(JsonInput.fetch(document), expandContext, writer);
+                writer.flush();
+            });
+        }
+
+        if (ndjson.isEnabled()) {
+            return ndjson.process(spec, output, batch.threads, document -> {
+                final StringWriter writer = new StringWriter();
+                toRdf(document, expandContext, writer);
+                return writer.toString();
+            });
+        }
+
+        try (final Writer writer = output.writer()) {
+            toRdf(input.fetch(), expandContext, writer);
+        }
+
+        return spec.exitCodeOnSuccess();
+    }
+
+    /**
+     * Streams N-Quads to the writer as they are produced, the dataset is never
+     * materialized.
+     */
+    void toRdf(Document document, Document expandContext, Writer writer) throws Exception {
+        final Writer buffered = new BufferedWriter(writer, BUFFER_SIZE);
+        try (final Metrics.Phase phase = Metrics.phase("tordf")) {
+            api(document, expandContext).provide(new NQuadsWriter(buffered));
+        }
+        buffered.flush();
+    }
+
+    ToRdfApi api(Document document, Document expandContext) {
+
+        final ToRdfApi api = JsonLd.toRdf(document)
+                .options(Loaders.options())
                 .base(base)
                 .ordered(ordered)
                 .produceGeneralizedRdf(generalizedRdf);
@@ -66,20 +127,14 @@ public final class ToRdfCmd implements Callable<Integer> {
             api.mode(JsonLdVersion.of("json-ld-" + mode));
         }
 
-        if (context != null) {
-            api.context(JsonInput.fetch(context));
+        if (expandContext != null) {
+            api.context(expandContext);
         }
 
         if (rdfDirection != null) {
             api.rdfDirection(RdfDirection.valueOf(rdfDirection.toUpperCase()));
         }
 
-        final RdfDataset output = api.get();
-
-        final RdfWriter writer = Rdf.createWriter(MediaType.N_QUADS, spec.commandLine().getOut());
-        writer.write(output);
-        spec.commandLine().getOut().flush();
-
-        return spec.exitCodeOnSuccess();
+        return api;
     }
 }
\ No newline at end of file
@@ -0,0 +1,103 @@
+package com.apicatalog.cli.daemon;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A thin client forwarding a command line invocation to a running daemon,
+ * see {@link com.apicatalog.cli.command.ServeCmd}.
+ */
+public final class DaemonClient {
+
+    private DaemonClient() {
+    }
+
+    /**
+     * Connects to a daemon listening on the given socket.
+     *
+     * @param socket a path to Unix domain socket
+     * @return a connected channel or <code>null</code> if there is no daemon
+     *         listening on the socket
+     */
+    public static SocketChannel connect(Path socket) {
+        if (!Files.exists(socket)) {
+            return null;
+        }
+        try {
+            final SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+            channel.connect(UnixDomainSocketAddress.of(socket));
+            return channel;
+
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Executes the command on a daemon and relays its standard input, output
+     * and error streams.
+     *
+     * @return the command exit code
+     */
+    public static int execute(SocketChannel channel, String[] args, InputStream stdin, OutputStream stdout, OutputStream stderr) throws IOException {
+
+        try (channel) {
+            final DataOutputStream os = new DataOutputStream(Channels.newOutputStream(channel));
+            final DataInputStream is = new DataInputStream(Channels.newInputStream(channel));
+
+            Frames.writeArgs(os, Path.of("").toAbsolutePath(), args);
+
+            final byte[] buffer = new byte[Frames.CHUNK_SIZE];
+
+            while (true) {
+                final byte type = is.readByte();
+                final int length = is.readInt();
+
+                switch (type) {
+                case Frames.STDOUT:
+                    relay(is, length, buffer, stdout);
+                    break;
+
+                case Frames.STDERR:
+                    relay(is, length, buffer, stderr);
+                    break;
+
+                case Frames.READ:
+                    final int read = stdin.read(buffer, 0, Math.min(is.readInt(), buffer.length));
+                    Frames.write(os, Frames.STDIN, buffer, 0, Math.max(read, 0));
+                    break;
+
+                case Frames.EXIT:
+                    stdout.flush();
+                    stderr.flush();
+                    return is.readInt();
+
+                default:
+                    throw new IOException("Unexpected frame type [" + (char) type + "].");
+                }
+            }
+        }
+    }
+
+    static void relay(DataInputStream is, int length, byte[] buffer, OutputStream os) throws IOException {
+        int remaining = length;
+        while (remaining > 0) {
+            final int read = is.read(buffer, 0, Math.min(remaining, buffer.length));
+            if (read < 0) {
+                throw new IOException("Unexpected end of stream.");
+            }
+            os.write(buffer, 0, read);
+            remaining -= read;
+        }
+        os.flush();
+    }
+}
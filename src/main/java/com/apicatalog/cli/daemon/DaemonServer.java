@@ -0,0 +1,251 @@
+package com.apicatalog.cli.daemon;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * Accepts command line invocations forwarded by {@link DaemonClient} over a
+ * Unix domain socket and executes them in this JVM. Relative paths are resolved
+ * against the client's working directory.
+ * <p>
+ * Commands read {@link System#in} and write {@link System#out} directly,
+ * therefore invocations are executed one at a time with the standard streams
+ * redirected to the connected client.
+ */
+public final class DaemonServer implements AutoCloseable {
+
+    final Path socket;
+    final ToIntBiFunction<Path, String[]> executor;
+    final PrintStream log;
+    final ReentrantLock lock;
+
+    ServerSocketChannel server;
+
+    public DaemonServer(Path socket, ToIntBiFunction<Path, String[]> executor, PrintStream log) {
+        this.socket = socket;
+        this.executor = executor;
+        this.log = log;
+        this.lock = new ReentrantLock(true);
+    }
+
+    /**
+     * Binds the socket accessible by the owner only. A missing parent
+     * directory is created accessible by the owner only, a stale socket left
+     * by a terminated daemon is replaced.
+     *
+     * @throws IllegalArgumentException if another daemon is listening on the
+     *                                  socket
+     */
+    public void start() throws IOException {
+
+        final Path parent = socket.toAbsolutePath().getParent();
+
+        if (parent != null && !Files.isDirectory(parent)) {
+            privateDirectory(parent);
+        }
+
+        if (Files.exists(socket)) {
+            if (isListening(socket)) {
+                throw new IllegalArgumentException("A daemon is already listening on [" + socket + "]. Stop the daemon or use another --socket.");
+            }
+            Files.delete(socket);
+        }
+
+        server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        server.bind(UnixDomainSocketAddress.of(socket));
+
+        restrict(socket, PosixFilePermissions.fromString("rw-------"));
+    }
+
+    /**
+     * Creates a directory, if it does not exist, and restricts access to the
+     * owner. Fails if the directory is owned by another user.
+     */
+    public static void privateDirectory(Path directory) throws IOException {
+        final Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rwx------");
+        try {
+            Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(permissions));
+
+        } catch (UnsupportedOperationException e) {
+            Files.createDirectories(directory);
+        }
+        restrict(directory, permissions);
+    }
+
+    static void restrict(Path path, Set<PosixFilePermission> permissions) throws IOException {
+        try {
+            Files.setPosixFilePermissions(path, permissions);
+
+        } catch (UnsupportedOperationException e) {
+            // not a POSIX file system, access is governed by the file system defaults
+        }
+    }
+
+    static boolean isListening(Path socket) {
+        try (final SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            channel.connect(UnixDomainSocketAddress.of(socket));
+            return true;
+
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public void serve() throws IOException {
+        while (server.isOpen()) {
+            final SocketChannel channel;
+            try {
+                channel = server.accept();
+            } catch (IOException e) {
+                if (!server.isOpen()) {
+                    return;
+                }
+                throw e;
+            }
+            Thread.ofVirtual().start(() -> handle(channel));
+        }
+    }
+
+    void handle(SocketChannel channel) {
+        try (channel) {
+            final DataOutputStream os = new DataOutputStream(Channels.newOutputStream(channel));
+            final DataInputStream is = new DataInputStream(Channels.newInputStream(channel));
+
+            final Frames.Invocation invocation = Frames.readArgs(is);
+
+            final int exitCode;
+
+            lock.lock();
+
+            final InputStream stdin = System.in;
+            final PrintStream stdout = System.out;
+            final PrintStream stderr = System.err;
+
+            try (final PrintStream out = new PrintStream(new BufferedOutputStream(new FrameOutputStream(os, Frames.STDOUT), Frames.CHUNK_SIZE), false, StandardCharsets.UTF_8);
+                    final PrintStream err = new PrintStream(new FrameOutputStream(os, Frames.STDERR), true, StandardCharsets.UTF_8)) {
+
+                System.setIn(new FrameInputStream(is, os));
+                System.setOut(out);
+                System.setErr(err);
+
+                exitCode = executor.applyAsInt(invocation.directory(), invocation.args());
+
+                out.flush();
+                err.flush();
+
+            } finally {
+                System.setIn(stdin);
+                System.setOut(stdout);
+                System.setErr(stderr);
+                lock.unlock();
+            }
+
+            Frames.write(os, Frames.EXIT, exitCode);
+
+        } catch (IOException | UncheckedIOException e) {
+            log.println("Client connection failed: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        // the socket of another daemon is left untouched
+        if (server != null) {
+            server.close();
+            Files.deleteIfExists(socket);
+        }
+    }
+
+    static final class FrameOutputStream extends OutputStream {
+
+        final DataOutputStream os;
+        final byte type;
+
+        FrameOutputStream(DataOutputStream os, byte type) {
+            this.os = os;
+            this.type = type;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                final int chunk = Math.min(len, Frames.CHUNK_SIZE);
+                Frames.write(os, type, b, off, chunk);
+                off += chunk;
+                len -= chunk;
+            }
+        }
+
+        @Override
+        public void close() {
+            // the underlying channel is owned by the connection
+        }
+    }
+
+    static final class FrameInputStream extends InputStream {
+
+        final DataInputStream is;
+        final DataOutputStream os;
+
+        boolean eof;
+
+        FrameInputStream(DataInputStream is, DataOutputStream os) {
+            this.is = is;
+            this.os = os;
+            this.eof = false;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final byte[] b = new byte[1];
+            return read(b, 0, 1) == 1 ? b[0] & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (eof) {
+                return -1;
+            }
+            if (len == 0) {
+                return 0;
+            }
+
+            Frames.write(os, Frames.READ, Math.min(len, Frames.CHUNK_SIZE));
+
+            Frames.expect(is, Frames.STDIN);
+            final int length = is.readInt();
+
+            if (length == 0) {
+                eof = true;
+                return -1;
+            }
+
+            is.readFully(b, off, length);
+            return length;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.apicatalog.cli.daemon;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * A minimal framing used between a daemon and its clients. Each frame is a
+ * type byte followed by a length-prefixed payload.
+ */
+final class Frames {
+
+    /** client -> server: a working directory and command line arguments */
+    static final byte ARGS = 'A';
+    /** client -> server: a chunk of standard input, empty payload means EOF */
+    static final byte STDIN = 'I';
+    /** server -> client: a request for at most N bytes of standard input */
+    static final byte READ = 'R';
+    /** server -> client: a chunk of standard output */
+    static final byte STDOUT = 'O';
+    /** server -> client: a chunk of standard error */
+    static final byte STDERR = 'E';
+    /** server -> client: exit code, the last frame */
+    static final byte EXIT = 'X';
+
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    private Frames() {
+    }
+
+    static void write(DataOutputStream os, byte type, byte[] data, int offset, int length) throws IOException {
+        os.writeByte(type);
+        os.writeInt(length);
+        os.write(data, offset, length);
+        os.flush();
+    }
+
+    static void write(DataOutputStream os, byte type, int value) throws IOException {
+        os.writeByte(type);
+        os.writeInt(Integer.BYTES);
+        os.writeInt(value);
+        os.flush();
+    }
+
+    /**
+     * An invocation forwarded by a client.
+     *
+     * @param directory the client's working directory, relative paths are
+     *                  resolved against
+     * @param args      command line arguments
+     */
+    record Invocation(Path directory, String[] args) {
+    }
+
+    static void writeArgs(DataOutputStream os, Path directory, String[] args) throws IOException {
+        os.writeByte(ARGS);
+        os.writeUTF(directory.toString());
+        os.writeInt(args.length);
+        for (final String arg : args) {
+            os.writeUTF(arg);
+        }
+        os.flush();
+    }
+
+    static Invocation readArgs(DataInputStream is) throws IOException {
+        expect(is, ARGS);
+        final Path directory = Path.of(is.readUTF());
+        if (!directory.isAbsolute()) {
+            throw new IOException("Invalid working directory [" + directory + "], an absolute path expected.");
+        }
+        final String[] args = new String[is.readInt()];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = is.readUTF();
+        }
+        return new Invocation(directory, args);
+    }
+
+    static void expect(DataInputStream is, byte type) throws IOException {
+        final byte actual = is.readByte();
+        if (actual != type) {
+            throw new IOException("Unexpected frame type [" + (char) actual + "], expected [" + (char) type + "].");
+        }
+    }
+}
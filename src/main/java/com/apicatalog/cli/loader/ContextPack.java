@@ -0,0 +1,220 @@
+package com.apicatalog.cli.loader;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.apicatalog.jsonld.JsonLdError;
+import com.apicatalog.jsonld.document.Document;
+import com.apicatalog.jsonld.document.JsonDocument;
+
+/**
+ * A single file bundling JSON-LD contexts, or any other JSON documents,
+ * keyed by their IRIs. The file is memory-mapped, only the index is read when
+ * opened and documents are parsed on the first access.
+ *
+ * <pre>
+ * magic    "LDCP"
+ * version  u8
+ * count    u32
+ * entries  count * (iri: UTF, documentUrl: UTF, offset: u64, length: u32)
+ * bodies   minified JSON documents
+ * </pre>
+ */
+public final class ContextPack {
+
+    static final byte[] MAGIC = { 'L', 'D', 'C', 'P' };
+    static final byte VERSION = 1;
+
+    record Slot(String documentUrl, long offset, int length) {
+    }
+
+    final Path path;
+    final ByteBuffer buffer;
+    final Map<String, Slot> index;
+    final Map<String, JsonDocument> documents;
+
+    ContextPack(Path path, ByteBuffer buffer, Map<String, Slot> index) {
+        this.path = path;
+        this.buffer = buffer;
+        this.index = index;
+        this.documents = new ConcurrentHashMap<>();
+    }
+
+    public static ContextPack open(Path path) throws IOException {
+
+        final ByteBuffer buffer;
+
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        for (final byte b : MAGIC) {
+            if (!buffer.hasRemaining() || buffer.get() != b) {
+                throw new IOException("Invalid context pack [" + path + "].");
+            }
+        }
+
+        final byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IOException("Unsupported context pack [" + path + "] version " + version + ".");
+        }
+
+        final int count = buffer.getInt();
+        final Map<String, Slot> index = new LinkedHashMap<>(count * 2);
+
+        for (int i = 0; i < count; i++) {
+            final String iri = readUTF(buffer);
+            final String documentUrl = readUTF(buffer);
+            index.put(iri, new Slot(documentUrl, buffer.getLong(), buffer.getInt()));
+        }
+
+        return new ContextPack(path, buffer, index);
+    }
+
+    /**
+     * Writes a new context pack.
+     *
+     * @param path      a target file
+     * @param documents IRI to document mapping
+     */
+    public static void write(Path path, Map<String, Document> documents) throws IOException {
+
+        final Map<String, String> urls = new LinkedHashMap<>(documents.size() * 2);
+        final Map<String, byte[]> bodies = new LinkedHashMap<>(documents.size() * 2);
+
+        documents.forEach((iri, document) -> {
+            urls.put(iri, document.getDocumentUrl() != null
+                    ? document.getDocumentUrl().toString()
+                    : iri);
+            bodies.put(iri, document.getJsonContent()
+                    .orElseThrow(() -> new IllegalArgumentException("Document [" + iri + "] is not JSON."))
+                    .toString()
+                    .getBytes(StandardCharsets.UTF_8));
+        });
+
+        // bodies follow the index
+        long offset = MAGIC.length + 1 + Integer.BYTES;
+        for (final String iri : bodies.keySet()) {
+            offset += Short.BYTES + iri.getBytes(StandardCharsets.UTF_8).length
+                    + Short.BYTES + urls.get(iri).getBytes(StandardCharsets.UTF_8).length
+                    + Long.BYTES
+                    + Integer.BYTES;
+        }
+
+        try (final DataOutputStream os = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 64 * 1024))) {
+
+            os.write(MAGIC);
+            os.writeByte(VERSION);
+            os.writeInt(bodies.size());
+
+            for (final Map.Entry<String, byte[]> entry : bodies.entrySet()) {
+                writeUTF(os, entry.getKey());
+                writeUTF(os, urls.get(entry.getKey()));
+                os.writeLong(offset);
+                os.writeInt(entry.getValue().length);
+                offset += entry.getValue().length;
+            }
+
+            for (final byte[] body : bodies.values()) {
+                os.write(body);
+            }
+        }
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public Map<String, Integer> entries() {
+        final Map<String, Integer> entries = new LinkedHashMap<>(index.size() * 2);
+        index.forEach((iri, slot) -> entries.put(iri, slot.length()));
+        return Collections.unmodifiableMap(entries);
+    }
+
+    public boolean contains(String iri) {
+        return index.containsKey(iri);
+    }
+
+    /**
+     * Returns a parsed document or <code>null</code> if the pack does not
+     * contain the IRI.
+     */
+    public JsonDocument get(String iri) throws JsonLdError {
+
+        final JsonDocument cached = documents.get(iri);
+        if (cached != null) {
+            return cached;
+        }
+
+        final Slot slot = index.get(iri);
+        if (slot == null) {
+            return null;
+        }
+
+        final JsonDocument document = JsonDocument.of(new BufferInputStream(
+                buffer.slice(Math.toIntExact(slot.offset()), slot.length())));
+
+        document.setDocumentUrl(URI.create(slot.documentUrl()));
+
+        final JsonDocument previous = documents.putIfAbsent(iri, document);
+        return previous != null ? previous : document;
+    }
+
+    static void writeUTF(DataOutputStream os, String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xffff) {
+            throw new IllegalArgumentException("IRI [" + value.substring(0, 64) + "...] is too long.");
+        }
+        os.writeShort(bytes.length);
+        os.write(bytes);
+    }
+
+    static String readUTF(ByteBuffer buffer) {
+        final int length = Short.toUnsignedInt(buffer.getShort());
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static final class BufferInputStream extends InputStream {
+
+        final ByteBuffer buffer;
+
+        BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            final int length = Math.min(len, buffer.remaining());
+            buffer.get(b, off, length);
+            return length;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.apicatalog.cli.loader;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Objects;
+
+import com.apicatalog.jsonld.JsonLdError;
+import com.apicatalog.jsonld.document.Document;
+import com.apicatalog.jsonld.document.JsonDocument;
+import com.apicatalog.jsonld.loader.DocumentLoader;
+import com.apicatalog.jsonld.loader.DocumentLoaderOptions;
+
+/**
+ * Serves documents bundled in {@link ContextPack}s, other documents are
+ * resolved by the next loader.
+ */
+public class ContextPackLoader implements DocumentLoader {
+
+    final List<ContextPack> packs;
+    final DocumentLoader next;
+
+    public ContextPackLoader(List<ContextPack> packs, DocumentLoader next) {
+        this.packs = List.copyOf(packs);
+        this.next = Objects.requireNonNull(next);
+    }
+
+    @Override
+    public Document loadDocument(URI url, DocumentLoaderOptions options) throws JsonLdError {
+
+        final String iri = url.toString();
+
+        for (final ContextPack pack : packs) {
+            final JsonDocument document = pack.get(iri);
+            if (document != null) {
+                return document;
+            }
+        }
+
+        return next.loadDocument(url, options);
+    }
+}
@@ -0,0 +1,438 @@
+package com.apicatalog.cli.loader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * A persistent, content-addressed store of fetched documents. Document bodies
+ * are stored once under their SHA-256 digest, an index entry maps a URL to a
+ * body and keeps HTTP validators. The index entry modification time records
+ * the last access and drives LRU eviction.
+ * <p>
+ * The cache can be shared by concurrent processes. Objects are written before
+ * index entries referencing them, recently written objects are therefore
+ * never collected as unreferenced.
+ *
+ * <pre>
+ * ~/.cache/ld-cli/
+ *   index/&lt;sha256(url)&gt;.properties
+ *   objects/&lt;ab&gt;/&lt;sha256(body)&gt;
+ * </pre>
+ */
+public class FileCache {
+
+    public static final String DIR_ENV = "LD_CLI_CACHE_DIR";
+
+    public static final long DEFAULT_MAX_SIZE = 128L * 1024 * 1024;
+
+    public static final Duration DEFAULT_TTL = Duration.ofHours(24);
+
+    /** Unreferenced objects younger than this might be referenced soon. */
+    static final Duration GRACE_PERIOD = Duration.ofMinutes(10);
+
+    public record Entry(
+            String url,
+            String documentUrl,
+            String digest,
+            String contentType,
+            String etag,
+            String lastModified,
+            Instant fetched,
+            Instant expires,
+            long size,
+            Instant accessed) {
+
+        public boolean isExpired(Instant now) {
+            return expires == null || now.isAfter(expires);
+        }
+    }
+
+    final Path root;
+    final Path index;
+    final Path objects;
+    final long maxSize;
+
+    /**
+     * The total size of stored documents as known to this instance, or
+     * <code>-1</code> if the index has not been read yet.
+     */
+    long total;
+
+    public FileCache(Path root, long maxSize) {
+        this.root = root;
+        this.index = root.resolve("index");
+        this.objects = root.resolve("objects");
+        this.maxSize = maxSize;
+        this.total = -1;
+    }
+
+    public static FileCache defaultInstance() {
+        return new FileCache(defaultDirectory(), DEFAULT_MAX_SIZE);
+    }
+
+    public static Path defaultDirectory() {
+
+        final String dir = System.getenv(DIR_ENV);
+        if (dir != null && !dir.isBlank()) {
+            return Path.of(dir);
+        }
+
+        final String xdg = System.getenv("XDG_CACHE_HOME");
+        if (xdg != null && !xdg.isBlank()) {
+            return Path.of(xdg, "ld-cli");
+        }
+
+        return Path.of(System.getProperty("user.home"), ".cache", "ld-cli");
+    }
+
+    public Path root() {
+        return root;
+    }
+
+    public Optional<Entry> get(String url) throws IOException {
+        final Path path = indexPath(url);
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(read(path));
+        } catch (NoSuchFileException e) {
+            // evicted meanwhile
+            return Optional.empty();
+        }
+    }
+
+    public InputStream open(Entry entry) throws IOException {
+        return Files.newInputStream(objectPath(entry.digest()));
+    }
+
+    /**
+     * Marks the entry as recently used.
+     */
+    public void touch(Entry entry) {
+        try {
+            Files.setLastModifiedTime(indexPath(entry.url()), FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            // an access time is only a hint
+        }
+    }
+
+    /**
+     * Extends the entry validity after a successful revalidation.
+     */
+    public Entry refresh(Entry entry, Instant expires) throws IOException {
+        final Entry refreshed = new Entry(
+                entry.url(),
+                entry.documentUrl(),
+                entry.digest(),
+                entry.contentType(),
+                entry.etag(),
+                entry.lastModified(),
+                Instant.now(),
+                expires,
+                entry.size(),
+                Instant.now());
+        write(refreshed);
+        return refreshed;
+    }
+
+    public synchronized Entry put(String url, String documentUrl, byte[] content, String contentType, String etag, String lastModified, Instant expires) throws IOException {
+
+        final String digest = digest(content);
+        final Path object = objectPath(digest);
+
+        if (!renew(object)) {
+            Files.createDirectories(object.getParent());
+            atomicWrite(object, content);
+        }
+
+        if (total < 0) {
+            total = size(list());
+        }
+
+        final Optional<Entry> previous = get(url);
+
+        final Entry entry = new Entry(url, documentUrl, digest, contentType, etag, lastModified, Instant.now(), expires, content.length, Instant.now());
+        write(entry);
+
+        total += entry.size() - previous.map(Entry::size).orElse(0L);
+
+        // entries added by other processes are accounted once the index is read again
+        if (total > maxSize) {
+            evict(maxSize);
+        }
+
+        return entry;
+    }
+
+    public List<Entry> list() throws IOException {
+        if (!Files.isDirectory(index)) {
+            return List.of();
+        }
+        final List<Entry> entries = new ArrayList<>();
+        try (final Stream<Path> paths = Files.list(index)) {
+            paths.filter(path -> path.toString().endsWith(".properties"))
+                    .forEach(path -> {
+                        try {
+                            entries.add(read(path));
+                        } catch (NoSuchFileException e) {
+                            // removed meanwhile
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        }
+        return entries;
+    }
+
+    public synchronized boolean remove(String url) throws IOException {
+        final boolean removed = Files.deleteIfExists(indexPath(url));
+        if (removed) {
+            total = -1;
+            collect();
+        }
+        return removed;
+    }
+
+    /**
+     * Removes least recently used entries until the total size of stored
+     * documents is below the limit.
+     *
+     * @return the number of removed entries
+     */
+    public synchronized int evict(long limit) throws IOException {
+
+        final List<Entry> entries = list();
+
+        total = size(entries);
+
+        if (total <= limit) {
+            return 0;
+        }
+
+        entries.sort(Comparator.comparing(Entry::accessed));
+
+        int removed = 0;
+
+        for (final Entry entry : entries) {
+            if (total <= limit) {
+                break;
+            }
+            if (Files.deleteIfExists(indexPath(entry.url()))) {
+                total -= entry.size();
+                removed++;
+            }
+        }
+
+        collect();
+        return removed;
+    }
+
+    /**
+     * Removes entries not accessed since the given instant.
+     *
+     * @return the number of removed entries
+     */
+    public synchronized int prune(Instant accessedBefore) throws IOException {
+        int removed = 0;
+        for (final Entry entry : list()) {
+            if (entry.accessed().isBefore(accessedBefore)
+                    && Files.deleteIfExists(indexPath(entry.url()))) {
+                removed++;
+            }
+        }
+        total = -1;
+        collect();
+        return removed;
+    }
+
+    /**
+     * Removes objects not referenced by any index entry and temporary files.
+     * Files modified within the grace period are kept, another process might
+     * be about to write an index entry referencing them.
+     */
+    synchronized void collect() throws IOException {
+
+        final Instant written = Instant.now().minus(GRACE_PERIOD);
+
+        if (Files.isDirectory(objects)) {
+
+            final Set<String> referenced = new HashSet<>();
+            for (final Entry entry : list()) {
+                referenced.add(entry.digest());
+            }
+
+            try (final Stream<Path> paths = Files.walk(objects)) {
+                for (final Path path : paths
+                        .filter(Files::isRegularFile)
+                        .toList()) {
+                    if ((isTemporary(path) || !referenced.contains(path.getFileName().toString()))
+                            && isWrittenBefore(path, written)) {
+                        Files.deleteIfExists(path);
+                    }
+                }
+            }
+        }
+
+        // left behind by a failed or killed process
+        if (Files.isDirectory(index)) {
+            try (final Stream<Path> paths = Files.list(index)) {
+                for (final Path path : paths
+                        .filter(FileCache::isTemporary)
+                        .toList()) {
+                    if (isWrittenBefore(path, written)) {
+                        Files.deleteIfExists(path);
+                    }
+                }
+            }
+        }
+    }
+
+    static boolean isTemporary(Path path) {
+        return path.getFileName().toString().endsWith(".tmp");
+    }
+
+    static boolean isWrittenBefore(Path path, Instant instant) throws IOException {
+        try {
+            return Files.getLastModifiedTime(path).toInstant().isBefore(instant);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Marks an existing object as recently written so it is not collected
+     * before an index entry references it.
+     *
+     * @return <code>false</code> if the object does not exist
+     */
+    static boolean renew(Path object) throws IOException {
+        try {
+            Files.setLastModifiedTime(object, FileTime.from(Instant.now()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    static long size(List<Entry> entries) {
+        return entries.stream().mapToLong(Entry::size).sum();
+    }
+
+    void write(Entry entry) throws IOException {
+
+        final Properties properties = new Properties();
+        properties.setProperty("url", entry.url());
+        properties.setProperty("documentUrl", entry.documentUrl());
+        properties.setProperty("digest", entry.digest());
+        properties.setProperty("size", Long.toString(entry.size()));
+        properties.setProperty("fetched", entry.fetched().toString());
+
+        if (entry.contentType() != null) {
+            properties.setProperty("contentType", entry.contentType());
+        }
+        if (entry.etag() != null) {
+            properties.setProperty("etag", entry.etag());
+        }
+        if (entry.lastModified() != null) {
+            properties.setProperty("lastModified", entry.lastModified());
+        }
+        if (entry.expires() != null) {
+            properties.setProperty("expires", entry.expires().toString());
+        }
+
+        final Path path = indexPath(entry.url());
+        Files.createDirectories(path.getParent());
+
+        final Path tmp = Files.createTempFile(path.getParent(), "entry", ".tmp");
+        try {
+            try (final OutputStream os = Files.newOutputStream(tmp)) {
+                properties.store(os, null);
+            }
+            move(tmp, path);
+
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    static Entry read(Path path) throws IOException {
+
+        final Properties properties = new Properties();
+
+        try (final InputStream is = Files.newInputStream(path)) {
+            properties.load(is);
+        }
+
+        final String expires = properties.getProperty("expires");
+
+        return new Entry(
+                properties.getProperty("url"),
+                properties.getProperty("documentUrl", properties.getProperty("url")),
+                properties.getProperty("digest"),
+                properties.getProperty("contentType"),
+                properties.getProperty("etag"),
+                properties.getProperty("lastModified"),
+                Instant.parse(properties.getProperty("fetched")),
+                expires != null ? Instant.parse(expires) : null,
+                Long.parseLong(properties.getProperty("size", "0")),
+                Files.getLastModifiedTime(path).toInstant());
+    }
+
+    Path indexPath(String url) {
+        return index.resolve(digest(url.getBytes(StandardCharsets.UTF_8)) + ".properties");
+    }
+
+    Path objectPath(String digest) {
+        return objects.resolve(digest.substring(0, 2)).resolve(digest);
+    }
+
+    static void atomicWrite(Path path, byte[] content) throws IOException {
+        final Path tmp = Files.createTempFile(path.getParent(), "object", ".tmp");
+        try {
+            Files.write(tmp, content);
+            move(tmp, path);
+
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    static String digest(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.apicatalog.cli.loader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpClient.Redirect;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.apicatalog.cli.metrics.Metrics;
+import com.apicatalog.jsonld.JsonLdError;
+import com.apicatalog.jsonld.JsonLdErrorCode;
+import com.apicatalog.jsonld.document.Document;
+import com.apicatalog.jsonld.document.JsonDocument;
+import com.apicatalog.jsonld.loader.DocumentLoader;
+import com.apicatalog.jsonld.loader.DocumentLoaderOptions;
+
+/**
+ * A {@link DocumentLoader} persisting remote JSON documents in a
+ * {@link FileCache}. Cached documents are served until they expire, then
+ * revalidated using <code>ETag</code> and <code>Last-Modified</code>
+ * validators. Documents which are not served as JSON are resolved by the
+ * fallback loader, e.g. to follow an alternate link, and cached afterwards.
+ */
+public class FileCacheLoader implements DocumentLoader {
+
+    static final String ACCEPT = "application/ld+json, application/json;q=0.9, */*;q=0.1";
+
+    final DocumentLoader fallback;
+    final FileCache cache;
+    final HttpClient client;
+    final Duration ttl;
+
+    volatile boolean offline;
+
+    public FileCacheLoader(DocumentLoader fallback, FileCache cache, Duration ttl) {
+        this.fallback = Objects.requireNonNull(fallback);
+        this.cache = Objects.requireNonNull(cache);
+        this.ttl = ttl;
+        this.client = HttpClient.newBuilder()
+                .followRedirects(Redirect.ALWAYS)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        this.offline = false;
+    }
+
+    /**
+     * Never access the network. Cached documents are served regardless of
+     * their expiration.
+     */
+    public FileCacheLoader offline(boolean offline) {
+        this.offline = offline;
+        return this;
+    }
+
+    public FileCache cache() {
+        return cache;
+    }
+
+    @Override
+    public Document loadDocument(URI url, DocumentLoaderOptions options) throws JsonLdError {
+
+        if (!isCacheable(url)) {
+            return fallback.loadDocument(url, options);
+        }
+
+        final String key = url.toString();
+
+        try {
+            final Optional<FileCache.Entry> cached = cache.get(key);
+
+            if (cached.isPresent()) {
+                final FileCache.Entry entry = cached.get();
+
+                if (offline || !entry.isExpired(Instant.now())) {
+                    final Document document = read(entry);
+                    if (document != null) {
+                        cache.touch(entry);
+                        return document;
+                    }
+                }
+            }
+
+            if (offline) {
+                throw new JsonLdError(JsonLdErrorCode.LOADING_DOCUMENT_FAILED, "Document [" + url + "] is not cached, offline mode is enabled.");
+            }
+
+            final long start = System.nanoTime();
+            boolean failed = true;
+
+            try {
+                final Document document = fetch(url, cached.orElse(null), options);
+                failed = false;
+                return document;
+
+            } finally {
+                Metrics.fetch(System.nanoTime() - start, failed);
+            }
+
+        } catch (IOException e) {
+            throw new JsonLdError(JsonLdErrorCode.LOADING_DOCUMENT_FAILED, e);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JsonLdError(JsonLdErrorCode.LOADING_DOCUMENT_FAILED, e);
+        }
+    }
+
+    /**
+     * Fetches the document and stores it in the cache, replacing any existing
+     * entry.
+     */
+    public Document refresh(URI url) throws JsonLdError {
+        try {
+            return fetch(url, null, new DocumentLoaderOptions());
+
+        } catch (IOException e) {
+            throw new JsonLdError(JsonLdErrorCode.LOADING_DOCUMENT_FAILED, e);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JsonLdError(JsonLdErrorCode.LOADING_DOCUMENT_FAILED, e);
+        }
+    }
+
+    Document fetch(URI url, FileCache.Entry cached, DocumentLoaderOptions options) throws IOException, InterruptedException, JsonLdError {
+
+        final HttpRequest.Builder request = HttpRequest.newBuilder()
+                .GET()
+                .uri(url)
+                .header("Accept", ACCEPT)
+                .timeout(Duration.ofMinutes(1));
+
+        if (cached != null) {
+            if (cached.etag() != null) {
+                request.header("If-None-Match", cached.etag());
+            }
+            if (cached.lastModified() != null) {
+                request.header("If-Modified-Since", cached.lastModified());
+            }
+        }
+
+        final HttpResponse<InputStream> response = client.send(request.build(), BodyHandlers.ofInputStream());
+
+        try (final InputStream body = response.body()) {
+
+            if (response.statusCode() == 304 && cached != null) {
+                final FileCache.Entry refreshed = cache.refresh(cached, expires(response));
+                final Document document = read(refreshed);
+                if (document != null) {
+                    return document;
+                }
+            }
+
+            final String contentType = response.headers().firstValue("Content-Type").orElse(null);
+
+            if (response.statusCode() == 200 && isJson(contentType)) {
+
+                final byte[] content = body.readAllBytes();
+
+                final FileCache.Entry entry = cache.put(
+                        url.toString(),
+                        response.uri().toString(),
+                        content,
+                        contentType,
+                        response.headers().firstValue("ETag").orElse(null),
+                        response.headers().firstValue("Last-Modified").orElse(null),
+                        expires(response));
+
+                final Document document = read(entry);
+                if (document != null) {
+                    return document;
+                }
+            }
+        }
+
+        // let the fallback loader to deal with redirects to alternate documents,
+        // non-JSON media types, errors, etc.
+        final Document document = fallback.loadDocument(url, options);
+
+        if (document != null && document.getJsonContent().isPresent()) {
+            cache.put(
+                    url.toString(),
+                    document.getDocumentUrl() != null ? document.getDocumentUrl().toString() : url.toString(),
+                    document.getJsonContent().get().toString().getBytes(StandardCharsets.UTF_8),
+                    null,
+                    null,
+                    null,
+                    Instant.now().plus(ttl));
+        }
+
+        return document;
+    }
+
+    Document read(FileCache.Entry entry) throws IOException, JsonLdError {
+        try (final InputStream is = cache.open(entry)) {
+            final JsonDocument document = JsonDocument.of(is);
+            document.setDocumentUrl(URI.create(entry.documentUrl()));
+            return document;
+
+        } catch (NoSuchFileException e) {
+            // the object has been evicted
+            return null;
+        }
+    }
+
+    Instant expires(HttpResponse<?> response) {
+
+        final Instant now = Instant.now();
+
+        for (final String directive : response.headers().firstValue("Cache-Control").orElse("").split(",")) {
+            final String value = directive.strip().toLowerCase(Locale.ROOT);
+
+            if (value.equals("no-cache") || value.equals("no-store")) {
+                return now;
+            }
+            if (value.startsWith("max-age=")) {
+                try {
+                    return now.plusSeconds(Long.parseLong(value.substring("max-age=".length())));
+                } catch (NumberFormatException e) {
+                    // ignore an invalid value
+                }
+            }
+        }
+        return now.plus(ttl);
+    }
+
+    static boolean isCacheable(URI url) {
+        return url.isAbsolute()
+                && ("https".equalsIgnoreCase(url.getScheme())
+                        || "http".equalsIgnoreCase(url.getScheme()));
+    }
+
+    static boolean isJson(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        final String type = contentType.split(";")[0].strip().toLowerCase(Locale.ROOT);
+        return type.equals("application/json")
+                || type.equals("application/ld+json")
+                || type.endsWith("+json");
+    }
+}
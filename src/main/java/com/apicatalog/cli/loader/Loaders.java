@@ -0,0 +1,138 @@
+package com.apicatalog.cli.loader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import com.apicatalog.jsonld.JsonLdOptions;
+import com.apicatalog.jsonld.document.Document;
+import com.apicatalog.jsonld.loader.DocumentLoader;
+import com.apicatalog.jsonld.loader.SchemeRouter;
+
+import jakarta.json.JsonValue;
+
+/**
+ * Holds the {@link DocumentLoader} used to resolve contexts, frames and
+ * dictionaries by all commands. Documents bundled in context packs are served
+ * first, remote documents are persisted in {@link FileCache}.
+ */
+public final class Loaders {
+
+    /** Context packs loaded by default, separated by a path separator. */
+    public static final String CONTEXT_PACK_ENV = "LD_CLI_CONTEXT_PACK";
+
+    /** Remote contexts shared by all documents processed in a run. */
+    public static final ProcessingCache<JsonValue> CONTEXTS = new ProcessingCache<>(256);
+
+    /** Remote documents shared by all documents processed in a run. */
+    public static final ProcessingCache<Document> DOCUMENTS = new ProcessingCache<>(256);
+
+    static FileCacheLoader cacheLoader = null;
+    static DocumentLoader base = null;
+    static List<ContextPack> packs = null;
+
+    static DocumentLoader loader = null;
+
+    private Loaders() {
+    }
+
+    public static synchronized DocumentLoader get() {
+        if (loader == null) {
+            loader = new MeteredLoader(packs().isEmpty()
+                    ? base()
+                    : new ContextPackLoader(packs, base()));
+        }
+        return loader;
+    }
+
+    /**
+     * Returns new processing options sharing the loader and caches.
+     */
+    public static JsonLdOptions options() {
+        final JsonLdOptions options = new JsonLdOptions(get());
+        options.setContextCache(CONTEXTS);
+        options.setDocumentCache(DOCUMENTS);
+        return options;
+    }
+
+    /**
+     * Sets a loader placed behind context packs.
+     */
+    public static synchronized void set(DocumentLoader loader) {
+        Loaders.base = Objects.requireNonNull(loader);
+        Loaders.loader = null;
+    }
+
+    public static synchronized List<ContextPack> packs() {
+        if (packs == null) {
+            packs = open(System.getenv(CONTEXT_PACK_ENV));
+        }
+        return packs;
+    }
+
+    public static synchronized void packs(List<ContextPack> packs) {
+        Loaders.packs = List.copyOf(packs);
+        Loaders.loader = null;
+    }
+
+    public static synchronized FileCacheLoader cacheLoader() {
+        if (cacheLoader == null) {
+            cacheLoader = new FileCacheLoader(SchemeRouter.defaultInstance(), FileCache.defaultInstance(), FileCache.DEFAULT_TTL);
+        }
+        return cacheLoader;
+    }
+
+    public static void offline(boolean offline) {
+        cacheLoader().offline(offline);
+    }
+
+    public static boolean isOffline() {
+        return cacheLoader().offline;
+    }
+
+    /**
+     * Rejects a remote input document in offline mode.
+     */
+    public static void requireOnline(URI input) {
+        if (isOffline() && FileCacheLoader.isCacheable(input)) {
+            throw new IllegalArgumentException("Cannot fetch [" + input + "], offline mode is enabled.");
+        }
+    }
+
+    public static List<ContextPack> open(List<Path> paths) {
+        final List<ContextPack> packs = new ArrayList<>(paths.size());
+        for (final Path path : paths) {
+            try {
+                packs.add(ContextPack.open(path));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open context pack [" + path + "]: " + e.getMessage(), e);
+            }
+        }
+        return packs;
+    }
+
+    static List<ContextPack> open(String paths) {
+        if (paths == null || paths.isBlank()) {
+            return List.of();
+        }
+        final List<Path> files = new ArrayList<>();
+        for (final String path : paths.split(File.pathSeparator)) {
+            if (!path.isBlank()) {
+                files.add(Path.of(path.strip()));
+            }
+        }
+        return open(files);
+    }
+
+    static synchronized DocumentLoader base() {
+        if (base == null) {
+            base = cacheLoader();
+        }
+        return base;
+    }
+}
@@ -0,0 +1,76 @@
+package com.apicatalog.cli.loader;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import com.apicatalog.jsonld.JsonLdError;
+import com.apicatalog.jsonld.document.Document;
+import com.apicatalog.jsonld.loader.DocumentLoader;
+import com.apicatalog.jsonld.loader.DocumentLoaderOptions;
+
+/**
+ * An in-memory, size-bounded LRU cache placed in front of another
+ * {@link DocumentLoader}. Keeps remote contexts warm for the lifetime of the
+ * process, e.g. when running as a daemon.
+ */
+public class MemoryCacheLoader implements DocumentLoader {
+
+    final DocumentLoader loader;
+    final Map<String, Document> cache;
+
+    public MemoryCacheLoader(DocumentLoader loader, int capacity) {
+        this.loader = Objects.requireNonNull(loader);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Document> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    @Override
+    public Document loadDocument(URI url, DocumentLoaderOptions options) throws JsonLdError {
+
+        final String key = key(url, options);
+
+        synchronized (cache) {
+            var document = cache.get(key);
+            if (document != null) {
+                return document;
+            }
+        }
+
+        final Document document = loader.loadDocument(url, options);
+
+        if (document != null) {
+            synchronized (cache) {
+                cache.put(key, document);
+            }
+        }
+        return document;
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    static final String key(URI url, DocumentLoaderOptions options) {
+        if (options == null || options.getProfile() == null) {
+            return url.toString();
+        }
+        return options.getProfile() + " " + url;
+    }
+}
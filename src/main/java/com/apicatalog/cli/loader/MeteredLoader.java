@@ -0,0 +1,30 @@
+package com.apicatalog.cli.loader;
+
+import java.net.URI;
+import java.util.Objects;
+
+import com.apicatalog.cli.metrics.Metrics;
+import com.apicatalog.jsonld.JsonLdError;
+import com.apicatalog.jsonld.document.Document;
+import com.apicatalog.jsonld.loader.DocumentLoader;
+import com.apicatalog.jsonld.loader.DocumentLoaderOptions;
+
+/**
+ * Records time spent loading documents, i.e. contexts, frames and
+ * dictionaries, as the <code>load</code> phase.
+ */
+public class MeteredLoader implements DocumentLoader {
+
+    final DocumentLoader next;
+
+    public MeteredLoader(DocumentLoader next) {
+        this.next = Objects.requireNonNull(next);
+    }
+
+    @Override
+    public Document loadDocument(URI url, DocumentLoaderOptions options) throws JsonLdError {
+        try (final Metrics.Phase phase = Metrics.phase("load")) {
+            return next.loadDocument(url, options);
+        }
+    }
+}
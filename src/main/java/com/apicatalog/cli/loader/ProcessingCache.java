@@ -0,0 +1,107 @@
+package com.apicatalog.cli.loader;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.apicatalog.jsonld.context.cache.Cache;
+
+/**
+ * A thread-safe LRU cache shared by all documents processed in a run, keeps
+ * hit and miss statistics.
+ *
+ * @param <V> a cached value type
+ */
+public final class ProcessingCache<V> implements Cache<String, V> {
+
+    final Map<String, V> cache;
+
+    final AtomicLong hits;
+    final AtomicLong misses;
+
+    /**
+     * The entry found by the last {@link #containsKey(String)} call of the
+     * thread, served by {@link #get(String)} even if evicted meanwhile.
+     */
+    final ThreadLocal<Map.Entry<String, V>> found;
+
+    public ProcessingCache(int capacity) {
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > capacity;
+            }
+        };
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.found = new ThreadLocal<>();
+    }
+
+    /**
+     * Checks if the key is cached, a lookup is counted as a hit or a miss.
+     * Titanium calls {@link #get(String)} only if the key is present and does
+     * not expect <code>null</code>, the value is kept for the calling thread
+     * as another thread can evict it in between.
+     */
+    @Override
+    public boolean containsKey(String key) {
+        final V value;
+        synchronized (cache) {
+            value = cache.get(key);
+        }
+        if (value != null) {
+            found.set(Map.entry(key, value));
+            hits.incrementAndGet();
+            return true;
+        }
+        found.remove();
+        misses.incrementAndGet();
+        return false;
+    }
+
+    @Override
+    public V get(String key) {
+
+        final Map.Entry<String, V> entry = found.get();
+        found.remove();
+
+        final V value;
+        synchronized (cache) {
+            value = cache.get(key);
+        }
+
+        if (value == null && entry != null && entry.getKey().equals(key)) {
+            return entry.getValue();
+        }
+        return value;
+    }
+
+    @Override
+    public void put(String key, V value) {
+        synchronized (cache) {
+            cache.put(key, value);
+        }
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    @Override
+    public String toString() {
+        return hits.get() + " hit(s), " + misses.get() + " miss(es), " + size() + " cached";
+    }
+}
@@ -0,0 +1,363 @@
+package com.apicatalog.cli.metrics;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.apicatalog.cli.loader.Loaders;
+
+import jakarta.json.Json;
+import jakarta.json.JsonObjectBuilder;
+
+/**
+ * Process-wide metrics: phase timings and allocations, bytes read and written,
+ * remote fetches and cache hits. Counters are cumulative, a report of a
+ * single invocation is a difference of two snapshots.
+ * <p>
+ * Phases may nest, e.g. document loading is a part of expansion, so phase
+ * timings do not add up to the total time. Allocations are estimated per
+ * thread running a phase, if supported by the JVM.
+ */
+public final class Metrics {
+
+    public enum Format {
+        JSON, PROMETHEUS
+    }
+
+    static final Map<String, Counters> PHASES = new ConcurrentHashMap<>();
+
+    static final LongAdder READ = new LongAdder();
+    static final LongAdder WRITTEN = new LongAdder();
+
+    static final Counters FETCHES = new Counters();
+    static final LongAdder FETCH_FAILURES = new LongAdder();
+
+    static final com.sun.management.ThreadMXBean THREADS = threads();
+
+    static final long START = System.nanoTime();
+
+    static Format report = null;
+
+    private Metrics() {
+    }
+
+    /**
+     * Sets a format of the invocation report, or <code>null</code> to disable
+     * it.
+     */
+    public static void report(Format format) {
+        report = format;
+    }
+
+    public static Format report() {
+        return report;
+    }
+
+    /**
+     * Starts a phase, the phase ends when it is closed by the same thread.
+     *
+     * @param name a phase name, e.g. <code>expand</code>
+     * @return a running phase
+     */
+    public static Phase phase(String name) {
+        return new Phase(PHASES.computeIfAbsent(name, n -> new Counters()));
+    }
+
+    /**
+     * Records a remote fetch.
+     *
+     * @param nanos  the fetch duration
+     * @param failed <code>true</code> if the fetch has failed
+     */
+    public static void fetch(long nanos, boolean failed) {
+        FETCHES.add(nanos, 0);
+        if (failed) {
+            FETCH_FAILURES.increment();
+        }
+    }
+
+    public static void read(long bytes) {
+        READ.add(bytes);
+    }
+
+    /**
+     * Counts bytes read from the stream.
+     */
+    public static InputStream reading(InputStream is) {
+        return new FilterInputStream(is) {
+
+            @Override
+            public int read() throws IOException {
+                final int b = in.read();
+                if (b != -1) {
+                    READ.increment();
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] data, int offset, int length) throws IOException {
+                final int read = in.read(data, offset, length);
+                if (read > 0) {
+                    READ.add(read);
+                }
+                return read;
+            }
+        };
+    }
+
+    /**
+     * Counts bytes written to the stream.
+     */
+    public static OutputStream writing(OutputStream os) {
+        return new FilterOutputStream(os) {
+
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                WRITTEN.increment();
+            }
+
+            @Override
+            public void write(byte[] data, int offset, int length) throws IOException {
+                out.write(data, offset, length);
+                WRITTEN.add(length);
+            }
+        };
+    }
+
+    public static Snapshot snapshot() {
+
+        final Map<String, long[]> phases = new TreeMap<>();
+        PHASES.forEach((name, counters) -> phases.put(name, counters.get()));
+
+        long collections = 0;
+        long collectionMillis = 0;
+        for (final GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collections += Math.max(0, gc.getCollectionCount());
+            collectionMillis += Math.max(0, gc.getCollectionTime());
+        }
+
+        return new Snapshot(
+                System.nanoTime() - START,
+                phases,
+                READ.sum(),
+                WRITTEN.sum(),
+                FETCHES.get(),
+                FETCH_FAILURES.sum(),
+                new long[] { Loaders.CONTEXTS.hits(), Loaders.CONTEXTS.misses() },
+                new long[] { Loaders.DOCUMENTS.hits(), Loaders.DOCUMENTS.misses() },
+                new long[] { collections, collectionMillis });
+    }
+
+    static long allocated() {
+        return THREADS != null
+                ? THREADS.getCurrentThreadAllocatedBytes()
+                : 0;
+    }
+
+    static com.sun.management.ThreadMXBean threads() {
+        try {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                    && threads.isThreadAllocatedMemorySupported()
+                    && threads.isThreadAllocatedMemoryEnabled()) {
+                return threads;
+            }
+        } catch (UnsupportedOperationException e) {
+            // not available, e.g. in a native image
+        }
+        return null;
+    }
+
+    /**
+     * A running phase.
+     */
+    public static final class Phase implements AutoCloseable {
+
+        final Counters counters;
+        final long start;
+        final long allocated;
+
+        Phase(Counters counters) {
+            this.counters = counters;
+            this.allocated = allocated();
+            this.start = System.nanoTime();
+        }
+
+        @Override
+        public void close() {
+            final long nanos = System.nanoTime() - start;
+            counters.add(nanos, Math.max(0, allocated() - allocated));
+        }
+    }
+
+    /**
+     * Count, total nanoseconds and allocated bytes.
+     */
+    static final class Counters {
+
+        final LongAdder count = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+        final LongAdder allocated = new LongAdder();
+
+        void add(long nanos, long allocated) {
+            this.count.increment();
+            this.nanos.add(nanos);
+            this.allocated.add(allocated);
+        }
+
+        long[] get() {
+            return new long[] { count.sum(), nanos.sum(), allocated.sum() };
+        }
+    }
+
+    /**
+     * Cumulative metrics at a point in time.
+     *
+     * @param uptime     nanoseconds since the metrics have been initialized
+     * @param phases     per phase count, nanoseconds and allocated bytes
+     * @param read       bytes read
+     * @param written    bytes written
+     * @param fetches    remote fetches count and nanoseconds
+     * @param failures   failed remote fetches
+     * @param contexts   context cache hits and misses
+     * @param documents  document cache hits and misses
+     * @param collection garbage collections count and milliseconds
+     */
+    public record Snapshot(
+            long uptime,
+            Map<String, long[]> phases,
+            long read,
+            long written,
+            long[] fetches,
+            long failures,
+            long[] contexts,
+            long[] documents,
+            long[] collection) {
+
+        /**
+         * Returns metrics recorded since the given snapshot.
+         */
+        public Snapshot since(Snapshot start) {
+
+            final Map<String, long[]> diff = new TreeMap<>();
+            phases.forEach((name, values) -> diff.put(name, minus(values, start.phases.getOrDefault(name, new long[values.length]))));
+
+            return new Snapshot(
+                    uptime - start.uptime,
+                    diff,
+                    read - start.read,
+                    written - start.written,
+                    minus(fetches, start.fetches),
+                    failures - start.failures,
+                    minus(contexts, start.contexts),
+                    minus(documents, start.documents),
+                    minus(collection, start.collection));
+        }
+
+        public void print(PrintWriter out, Format format) {
+            switch (format) {
+            case JSON -> out.println(json());
+            case PROMETHEUS -> prometheus(out);
+            }
+            out.flush();
+        }
+
+        String json() {
+
+            final JsonObjectBuilder phases = Json.createObjectBuilder();
+            this.phases.forEach((name, values) -> phases.add(name, Json.createObjectBuilder()
+                    .add("count", values[0])
+                    .add("ms", millis(values[1]))
+                    .add("allocatedBytes", values[2])));
+
+            return Json.createObjectBuilder()
+                    .add("ms", millis(uptime))
+                    .add("phases", phases)
+                    .add("bytesRead", read)
+                    .add("bytesWritten", written)
+                    .add("fetches", Json.createObjectBuilder()
+                            .add("count", fetches[0])
+                            .add("ms", millis(fetches[1]))
+                            .add("failed", failures))
+                    .add("cache", Json.createObjectBuilder()
+                            .add("contexts", Json.createObjectBuilder()
+                                    .add("hits", contexts[0])
+                                    .add("misses", contexts[1]))
+                            .add("documents", Json.createObjectBuilder()
+                                    .add("hits", documents[0])
+                                    .add("misses", documents[1])))
+                    .add("gc", Json.createObjectBuilder()
+                            .add("count", collection[0])
+                            .add("ms", collection[1]))
+                    .build()
+                    .toString();
+        }
+
+        /**
+         * Prints metrics in the Prometheus text exposition format.
+         */
+        public void prometheus(PrintWriter out) {
+
+            out.print("# TYPE ld_cli_phase_seconds summary\n");
+            phases.forEach((name, values) -> {
+                out.printf("ld_cli_phase_seconds_count{phase=\"%s\"} %d\n", name, values[0]);
+                out.printf("ld_cli_phase_seconds_sum{phase=\"%s\"} %s\n", name, seconds(values[1]));
+            });
+
+            out.print("# TYPE ld_cli_phase_allocated_bytes_total counter\n");
+            phases.forEach((name, values) -> out.printf("ld_cli_phase_allocated_bytes_total{phase=\"%s\"} %d\n", name, values[2]));
+
+            out.print("# TYPE ld_cli_read_bytes_total counter\n");
+            out.printf("ld_cli_read_bytes_total %d\n", read);
+            out.print("# TYPE ld_cli_written_bytes_total counter\n");
+            out.printf("ld_cli_written_bytes_total %d\n", written);
+
+            out.print("# TYPE ld_cli_fetch_seconds summary\n");
+            out.printf("ld_cli_fetch_seconds_count %d\n", fetches[0]);
+            out.printf("ld_cli_fetch_seconds_sum %s\n", seconds(fetches[1]));
+            out.print("# TYPE ld_cli_fetch_failures_total counter\n");
+            out.printf("ld_cli_fetch_failures_total %d\n", failures);
+
+            out.print("# TYPE ld_cli_cache_hits_total counter\n");
+            out.printf("ld_cli_cache_hits_total{cache=\"contexts\"} %d\n", contexts[0]);
+            out.printf("ld_cli_cache_hits_total{cache=\"documents\"} %d\n", documents[0]);
+            out.print("# TYPE ld_cli_cache_misses_total counter\n");
+            out.printf("ld_cli_cache_misses_total{cache=\"contexts\"} %d\n", contexts[1]);
+            out.printf("ld_cli_cache_misses_total{cache=\"documents\"} %d\n", documents[1]);
+
+            out.print("# TYPE ld_cli_gc_collections_total counter\n");
+            out.printf("ld_cli_gc_collections_total %d\n", collection[0]);
+            out.print("# TYPE ld_cli_gc_seconds_total counter\n");
+            out.printf("ld_cli_gc_seconds_total %s\n", seconds(collection[1] * 1_000_000));
+
+            out.print("# TYPE ld_cli_uptime_seconds gauge\n");
+            out.printf("ld_cli_uptime_seconds %s\n", seconds(uptime));
+        }
+
+        static long[] minus(long[] a, long[] b) {
+            final long[] diff = new long[a.length];
+            for (int i = 0; i < a.length; i++) {
+                diff[i] = a[i] - b[i];
+            }
+            return diff;
+        }
+
+        static double millis(long nanos) {
+            return Math.round(nanos / 1_000d) / 1_000d;
+        }
+
+        static String seconds(long nanos) {
+            return Double.toString(nanos / 1_000_000_000d);
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package com.apicatalog.cli.mixin;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import com.apicatalog.cli.WorkingDirectory;
+import com.apicatalog.cli.loader.Loaders;
+import com.apicatalog.cli.metrics.Metrics;
+
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+
+public class BatchOptions {
+
+    @FunctionalInterface
+    public interface Task {
+        void process(Path input, OutputStream output) throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface Digester {
+        String digest(Path input) throws Exception;
+    }
+
+    @Option(names = { "--batch" }, description = "Process documents in a directory, matching a glob pattern, or listed in a file (@file).", paramLabel = "<dir|glob|@file>")
+    public String batch = null;
+
+    @Option(names = { "--batch-output" }, description = "Output directory mirroring the batch input structure.", paramLabel = "<dir>")
+    public Path outputDir = null;
+
+    @Option(names = { "--threads" }, description = "Number of worker threads, 0 for a virtual thread per document (default: number of processors).", paramLabel = "<count>")
+    public int threads = Runtime.getRuntime().availableProcessors();
+
+    public boolean isEnabled() {
+        return batch != null;
+    }
+
+    /**
+     * Processes all batch input documents in parallel. A failure is reported
+     * and does not stop processing of the remaining documents.
+     *
+     * @param spec      a command specification used to report progress
+     * @param extension an output file extension, e.g. <code>.jsonld</code>
+     * @param task      a task processing a single document
+     * @return an exit code
+     */
+    public int process(CommandSpec spec, String extension, Task task) throws Exception {
+
+        if (outputDir == null) {
+            throw new IllegalArgumentException("Batch output directory is not set. Use --batch-output.");
+        }
+
+        final Map<Path, Input> targets = targets(extension);
+
+        final PrintWriter err = spec.commandLine().getErr();
+
+        final AtomicInteger processed = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+
+        try (final ExecutorService executor = threads > 0
+                ? Executors.newFixedThreadPool(threads)
+                : Executors.newVirtualThreadPerTaskExecutor()) {
+
+            final int window = window();
+            final Deque<Future<?>> pending = new ArrayDeque<>(window);
+
+            for (final Map.Entry<Path, Input> entry : targets.entrySet()) {
+
+                final Path target = entry.getKey();
+                final Input input = entry.getValue();
+
+                pending.add(executor.submit(() -> {
+                    try {
+                        if (target.getParent() != null) {
+                            Files.createDirectories(target.getParent());
+                        }
+                        try (final OutputStream os = new BufferedOutputStream(Metrics.writing(Files.newOutputStream(target)), 64 * 1024)) {
+                            task.process(input.path(), os);
+                        }
+                        processed.incrementAndGet();
+
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                        try {
+                            Files.deleteIfExists(target);
+                        } catch (IOException e1) {
+                            // ignore
+                        }
+                        synchronized (err) {
+                            err.println(input.name() + ": " + e.getMessage());
+                            err.flush();
+                        }
+                    }
+                }));
+
+                // only a bounded number of documents is open at once
+                if (pending.size() >= window) {
+                    pending.poll().get();
+                }
+            }
+
+            while (!pending.isEmpty()) {
+                pending.poll().get();
+            }
+        }
+
+        err.println("Processed " + processed.get() + " document(s), " + failed.get() + " failed.");
+        err.println("Context cache: " + Loaders.CONTEXTS + ", document cache: " + Loaders.DOCUMENTS + ".");
+        err.flush();
+
+        return failed.get() == 0
+                ? spec.exitCodeOnSuccess()
+                : spec.exitCodeOnExecutionException();
+    }
+
+    /**
+     * Hashes all batch input documents in parallel and prints a digest
+     * followed by the document path per line, in the input order. A failure
+     * is reported and does not stop processing of the remaining documents.
+     *
+     * @param spec     a command specification used to report failures
+     * @param output   an output to print digests to
+     * @param digester computes an encoded digest of a single document
+     * @return an exit code
+     */
+    public int digest(CommandSpec spec, Output output, Digester digester) throws Exception {
+
+        final PrintWriter err = spec.commandLine().getErr();
+
+        long failed = 0;
+
+        try (final ExecutorService executor = threads > 0
+                ? Executors.newFixedThreadPool(threads)
+                : Executors.newVirtualThreadPerTaskExecutor();
+                final Stream<Input> documents = inputs();
+                final PrintWriter writer = output.writer()) {
+
+            final int window = window();
+            final Deque<Map.Entry<Path, Future<String>>> pending = new ArrayDeque<>(window);
+
+            final Iterator<Input> it = documents.iterator();
+
+            while (it.hasNext()) {
+
+                final Input document = it.next();
+
+                pending.add(Map.entry(document.name(), executor.submit(() -> digester.digest(document.path()))));
+
+                // digests are printed in order as soon as the window is full
+                if (pending.size() >= window && !print(pending.poll(), writer, err)) {
+                    failed++;
+                }
+            }
+
+            while (!pending.isEmpty()) {
+                if (!print(pending.poll(), writer, err)) {
+                    failed++;
+                }
+            }
+        }
+
+        return failed == 0
+                ? spec.exitCodeOnSuccess()
+                : spec.exitCodeOnExecutionException();
+    }
+
+    static boolean print(Map.Entry<Path, Future<String>> digest, PrintWriter writer, PrintWriter err) throws InterruptedException {
+        try {
+            writer.println(digest.getValue().get() + "  " + digest.getKey());
+            return true;
+
+        } catch (ExecutionException e) {
+            err.println(digest.getKey() + ": " + e.getCause().getMessage());
+            err.flush();
+            return false;
+        }
+    }
+
+    /**
+     * The number of documents processed ahead, bounds open files and results
+     * held in memory.
+     */
+    int window() {
+        return (threads > 0 ? threads : 64) * LineProcessor.IN_FLIGHT;
+    }
+
+    /**
+     * Maps output files to input documents. Fails before any document is
+     * processed if a target is outside the output directory or two documents
+     * would be written to the same target.
+     */
+    Map<Path, Input> targets(String extension) throws IOException {
+
+        final Path root = outputDir.normalize();
+
+        final Map<Path, Input> targets = new LinkedHashMap<>();
+
+        try (final Stream<Input> inputs = inputs()) {
+            final Iterator<Input> it = inputs.iterator();
+            while (it.hasNext()) {
+                final Input input = it.next();
+
+                final Path target = root.resolve(replaceExtension(input.relative(), extension)).normalize();
+
+                if (!target.startsWith(root) || target.equals(root)) {
+                    throw new IllegalArgumentException("Batch input [" + input.name() + "] cannot be written outside of the batch output directory [" + outputDir + "].");
+                }
+
+                final Input previous = targets.putIfAbsent(target, input);
+
+                if (previous != null) {
+                    throw new IllegalArgumentException("Batch inputs [" + previous.name() + "] and [" + input.name() + "] would be written to the same file [" + target + "].");
+                }
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * A batch input document.
+     *
+     * @param name     the document path as listed or matched
+     * @param relative the document path mirrored in the batch output directory
+     */
+    public record Input(Path name, Path relative) {
+
+        /**
+         * Returns the document path resolved against the working directory.
+         */
+        public Path path() {
+            return WorkingDirectory.resolve(name);
+        }
+    }
+
+    /**
+     * Lists documents in a directory, matching a glob pattern, or listed in a
+     * file (@file).
+     *
+     * @param batch a directory, a glob pattern, or <code>@file</code>
+     * @return documents
+     */
+    public static Stream<Input> documents(String batch) throws IOException {
+        return inputs(batch);
+    }
+
+    Stream<Input> inputs() throws IOException {
+        return inputs(batch);
+    }
+
+    static Stream<Input> inputs(String batch) throws IOException {
+
+        // a list of files, one per line
+        if (batch.startsWith("@")) {
+            return Files.readAllLines(WorkingDirectory.resolve(batch.substring(1))).stream()
+                    .map(String::strip)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .map(Path::of)
+                    // absolute paths are mirrored without the root
+                    .map(path -> new Input(path, path.isAbsolute() ? path.getRoot().relativize(path) : path.normalize()));
+        }
+
+        final Path path = Path.of(batch);
+
+        if (Files.isDirectory(WorkingDirectory.resolve(path))) {
+            return walk(path, null);
+        }
+
+        if (Files.isRegularFile(WorkingDirectory.resolve(path))) {
+            return Stream.of(new Input(path, path.getFileName()));
+        }
+
+        // a glob pattern, e.g. credentials/**/*.jsonld
+        int index = 0;
+        for (int i = 0; i < batch.length(); i++) {
+            final char ch = batch.charAt(i);
+            if (ch == '*' || ch == '?' || ch == '[' || ch == '{') {
+                break;
+            }
+            if (ch == '/' || ch == java.io.File.separatorChar) {
+                index = i + 1;
+            }
+        }
+
+        final Path base = index > 0 ? Path.of(batch.substring(0, index)) : Path.of(".");
+
+        if (!Files.isDirectory(WorkingDirectory.resolve(base))) {
+            throw new IllegalArgumentException("Batch input [" + batch + "] does not exist.");
+        }
+
+        return walk(base, FileSystems.getDefault().getPathMatcher("glob:" + batch.substring(index)));
+    }
+
+    static Stream<Input> walk(Path base, PathMatcher matcher) throws IOException {
+        final Path root = WorkingDirectory.resolve(base);
+        return Files.walk(root)
+                .filter(Files::isRegularFile)
+                .map(root::relativize)
+                .filter(relative -> matcher == null || matcher.matches(relative))
+                .map(relative -> new Input(base.resolve(relative), relative));
+    }
+
+    static Path replaceExtension(Path path, String extension) {
+        final String name = path.getFileName().toString();
+        final int dot = name.lastIndexOf('.');
+        return path.resolveSibling((dot > 0 ? name.substring(0, dot) : name) + extension);
+    }
+}
@@ -0,0 +1,16 @@
+package com.apicatalog.cli.mixin;
+
+import picocli.CommandLine.Option;
+
+public class BinaryOutput extends Output {
+
+    @Option(names = { "--encoding" }, description = "Binary output encoding (default: raw).", paramLabel = "raw|hex|base64")
+    public Encoding encoding = null;
+
+    /**
+     * Returns the requested encoding or the given default.
+     */
+    public Encoding encoding(Encoding defaultEncoding) {
+        return encoding != null ? encoding : defaultEncoding;
+    }
+}
@@ -5,10 +5,17 @@ import java.net.URI;
 import java.net.http.HttpRequest;
 import java.net.http.HttpClient.Redirect;
 import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
 
+import com.apicatalog.cli.WorkingDirectory;
+import com.apicatalog.cli.loader.Loaders;
+import com.apicatalog.cli.metrics.Metrics;
+
 import picocli.CommandLine.Option;
 
 public class ByteInput {
@@ -19,22 +26,53 @@ public class ByteInput {
     static final java.net.http.HttpClient CLIENT = java.net.http.HttpClient.newBuilder().followRedirects(Redirect.ALWAYS).build();
     
     public byte[] fetch() throws Exception {
+        final byte[] data;
+
+        if (input == null) {
+            data = System.in.readAllBytes();
+
+        } else if (input.isAbsolute() && !"file".equalsIgnoreCase(input.getScheme())) {
+            Loaders.requireOnline(input);
+            // counted while read
+            try (var is = fetchHttp(input)) {
+                return is.readAllBytes();
+            }
+
+        } else {
+            data = Files.readAllBytes(input.isAbsolute() ? Path.of(input) : WorkingDirectory.resolve(input.toString()));
+        }
+
+        Metrics.read(data.length);
+        return data;
+    }
+
+    /**
+     * Opens the input as a channel to be read in chunks.
+     */
+    public ReadableByteChannel channel() throws Exception {
         if (input == null) {
-            return System.in.readAllBytes();
+            return Channels.newChannel(Metrics.reading(System.in));
         }
 
         if (input.isAbsolute()) {
             if ("file".equalsIgnoreCase(input.getScheme())) {
-                return Files.readAllBytes(Path.of(input));
-            }
-            try (var is = fetchHttp(input)) {
-                return is.readAllBytes();
+                return open(Path.of(input));
             }
+            Loaders.requireOnline(input);
+            // counted while read
+            return Channels.newChannel(fetchHttp(input));
         }
-        return Files.readAllBytes(Path.of(input.toString()));
+        return open(WorkingDirectory.resolve(input.toString()));
     }
 
-    static InputStream fetchHttp(URI uri) throws Exception {
+    static FileChannel open(Path path) throws Exception {
+        final FileChannel channel = FileChannel.open(path);
+        // consumed whole, counted up front as the mapped N-Quads reader does
+        Metrics.read(channel.size());
+        return channel;
+    }
+
+    public static InputStream fetchHttp(URI uri) throws Exception {
 
         var request = HttpRequest.newBuilder()
                 .GET()
@@ -42,12 +80,21 @@ public class ByteInput {
                 .header("Accept", "*/*")
                 .timeout(Duration.ofMinutes(1));
 
-        var response = CLIENT.send(request.build(), BodyHandlers.ofInputStream());
+        final long start = System.nanoTime();
+        boolean failed = true;
+
+        try {
+            var response = CLIENT.send(request.build(), BodyHandlers.ofInputStream());
+
+            if (response.statusCode() != 200) {
+                throw new IllegalArgumentException("The [" + uri + "] has returned code " + response.statusCode() + ", expected 200 OK");
+            }
+            failed = false;
+            return Metrics.reading(response.body());
 
-        if (response.statusCode() != 200) {
-            throw new IllegalArgumentException("The [" + uri + "] has returned code " + response.statusCode() + ", expected 200 OK");
+        } finally {
+            Metrics.fetch(System.nanoTime() - start, failed);
         }
-        return response.body();
     }
 
 }
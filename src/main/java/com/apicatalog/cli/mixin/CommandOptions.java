@@ -1,5 +1,11 @@
 package com.apicatalog.cli.mixin;
 
+import java.nio.file.Path;
+import java.util.List;
+
+import com.apicatalog.cli.loader.Loaders;
+import com.apicatalog.cli.metrics.Metrics;
+
 import picocli.CommandLine.Option;
 
 public class CommandOptions {
@@ -9,4 +15,19 @@ public class CommandOptions {
 
     @Option(names = "--debug", description = "Print detailed error information.")
     public boolean debug = false;
+
+    @Option(names = "--metrics", arity = "0..1", fallbackValue = "JSON", description = "Report phase timings and allocations, bytes read and written, remote fetches, and cache hits to the error output.", paramLabel = "json|prometheus")
+    void metrics(Metrics.Format format) {
+        Metrics.report(format);
+    }
+
+    @Option(names = "--offline", description = "Never access the network, use cached documents only.")
+    void offline(boolean offline) {
+        Loaders.offline(offline);
+    }
+
+    @Option(names = "--context-pack", description = "Serve documents bundled in a context pack. Can be specified multiple times.", paramLabel = "<file>")
+    void contextPacks(List<Path> packs) {
+        Loaders.packs(Loaders.open(packs));
+    }
 }
@@ -0,0 +1,89 @@
+package com.apicatalog.cli.mixin;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import com.apicatalog.cli.metrics.Metrics;
+
+/**
+ * Opens document inputs as buffered streams, gzip-compressed input is
+ * detected by its magic bytes and decompressed on the fly. Inputs are never
+ * read into memory as a whole.
+ */
+public final class CompressedInput {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    static final byte[] GZIP = { (byte) 0x1f, (byte) 0x8b };
+    static final byte[] ZSTD = { (byte) 0x28, (byte) 0xb5, (byte) 0x2f, (byte) 0xfd };
+
+    private CompressedInput() {
+    }
+
+    /**
+     * Opens a local file.
+     *
+     * @param path a file path
+     * @return a buffered, possibly decompressing, input stream
+     */
+    public static InputStream open(Path path) throws IOException {
+        try {
+            return of(Files.newInputStream(path));
+
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Input [" + path + "]: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Wraps the input stream.
+     *
+     * @param is an input stream
+     * @return a buffered, possibly decompressing, input stream
+     */
+    public static InputStream of(InputStream is) throws IOException {
+
+        final BufferedInputStream buffered = new BufferedInputStream(Metrics.reading(is), BUFFER_SIZE);
+
+        buffered.mark(ZSTD.length);
+        final byte[] magic = buffered.readNBytes(ZSTD.length);
+        buffered.reset();
+
+        if (startsWith(magic, GZIP)) {
+            return new BufferedInputStream(new GZIPInputStream(buffered, BUFFER_SIZE), BUFFER_SIZE);
+        }
+
+        if (startsWith(magic, ZSTD)) {
+            buffered.close();
+            throw new IllegalArgumentException("Zstandard-compressed input is not supported, use gzip or decompress it first, e.g. zstd -dc.");
+        }
+
+        return buffered;
+    }
+
+    /**
+     * Returns <code>true</code> if the file is compressed.
+     */
+    public static boolean isCompressed(Path path) throws IOException {
+        try (final InputStream is = Files.newInputStream(path)) {
+            final byte[] magic = is.readNBytes(ZSTD.length);
+            return startsWith(magic, GZIP) || startsWith(magic, ZSTD);
+        }
+    }
+
+    static boolean startsWith(byte[] data, byte[] prefix) {
+        if (data.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (data[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
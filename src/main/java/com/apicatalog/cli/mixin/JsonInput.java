@@ -1,15 +1,16 @@
 package com.apicatalog.cli.mixin;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Objects;
 
+import com.apicatalog.cli.WorkingDirectory;
+import com.apicatalog.cli.loader.Loaders;
+import com.apicatalog.cli.metrics.Metrics;
 import com.apicatalog.jsonld.JsonLdError;
 import com.apicatalog.jsonld.document.JsonDocument;
-import com.apicatalog.jsonld.loader.DocumentLoader;
 import com.apicatalog.jsonld.loader.DocumentLoaderOptions;
 import com.apicatalog.jsonld.loader.SchemeRouter;
 
@@ -22,18 +23,51 @@ public class JsonInput {
 
     public JsonDocument fetch() throws JsonLdError, IOException {
         if (input != null) {
+            if (input.isAbsolute() && "file".equalsIgnoreCase(input.getScheme())) {
+                return fetch(input);
+            }
+            if (input.isAbsolute()) {
+                Loaders.requireOnline(input);
+                // input documents are never cached
+                final long start = System.nanoTime();
+                boolean failed = true;
+                try (final Metrics.Phase phase = Metrics.phase("parse")) {
+                    final JsonDocument document = (JsonDocument) SchemeRouter.defaultInstance().loadDocument(input, new DocumentLoaderOptions());
+                    failed = false;
+                    return document;
+
+                } finally {
+                    Metrics.fetch(System.nanoTime() - start, failed);
+                }
+            }
             return fetch(input);
         }
-        return JsonDocument.of(System.in);
+        try (final Metrics.Phase phase = Metrics.phase("parse")) {
+            return JsonDocument.of(CompressedInput.of(System.in));
+        }
     }
 
     public static JsonDocument fetch(URI input) throws JsonLdError, IOException {
         Objects.requireNonNull(input);
+        if (input.isAbsolute() && "file".equalsIgnoreCase(input.getScheme())) {
+            final JsonDocument document = fetch(Path.of(input));
+            document.setDocumentUrl(input);
+            return document;
+        }
         if (input.isAbsolute()) {
-            final DocumentLoader loader = SchemeRouter.defaultInstance();
-            return (JsonDocument) loader.loadDocument(input, new DocumentLoaderOptions());
+            return (JsonDocument) Loaders.get().loadDocument(input, new DocumentLoaderOptions());
         }
-        return JsonDocument.of(new ByteArrayInputStream(Files.readAllBytes(Path.of(input.toString()))));
+        return fetch(WorkingDirectory.resolve(input.toString()));
     }
 
+    /**
+     * Parses a local file while it is read, gzip-compressed files are
+     * decompressed on the fly.
+     */
+    public static JsonDocument fetch(Path input) throws JsonLdError, IOException {
+        try (final Metrics.Phase phase = Metrics.phase("parse");
+                final InputStream is = CompressedInput.open(input)) {
+            return JsonDocument.of(is);
+        }
+    }
 }
@@ -1,32 +1,57 @@
 package com.apicatalog.cli.mixin;
 
-import java.io.PrintWriter;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Collections;
+import java.util.Map;
+
+import com.apicatalog.cli.metrics.Metrics;
 
 import jakarta.json.Json;
 import jakarta.json.JsonStructure;
-import jakarta.json.JsonWriter;
-import jakarta.json.JsonWriterFactory;
 import jakarta.json.stream.JsonGenerator;
+import jakarta.json.stream.JsonGeneratorFactory;
 import picocli.CommandLine.Option;
 
-public class JsonOutput {
+public class JsonOutput extends Output {
+
+    static final JsonGeneratorFactory COMPACT = Json.createGeneratorFactory(Map.of());
+
+    static final JsonGeneratorFactory PRETTY = Json.createGeneratorFactory(Collections.singletonMap(JsonGenerator.PRETTY_PRINTING, true));
 
     @Option(names = { "-p", "--pretty" }, description = "Pretty-print the output JSON.")
     public boolean pretty = false;
 
-    public final void print(PrintWriter writer, JsonStructure document) {
-        if (!pretty) {
-            writer.println(document.toString());
-            return;
+    /**
+     * Streams the document into the output, no intermediate string is built.
+     */
+    public final void print(JsonStructure document) throws IOException {
+        try (final OutputStream os = open()) {
+            print(os, document);
         }
+    }
 
-        final JsonWriterFactory writerFactory = Json
-                .createWriterFactory(Collections.singletonMap(JsonGenerator.PRETTY_PRINTING, true));
+    /**
+     * Streams the document followed by a new line into the stream, the stream
+     * is flushed but not closed.
+     */
+    public final void print(OutputStream os, JsonStructure document) throws IOException {
 
-        try (final JsonWriter jsonWriter = writerFactory.createWriter(writer)) {
-            jsonWriter.write(document);
+        try (final Metrics.Phase phase = Metrics.phase("serialize");
+                final JsonGenerator generator = generator(os)) {
+            generator.write(document);
         }
-        writer.flush();
+
+        os.write('\n');
+        os.flush();
+    }
+
+    /**
+     * Creates a streaming generator, closing the generator flushes but does not
+     * close the stream.
+     */
+    public final JsonGenerator generator(OutputStream os) {
+        // the generator closes the target, keep the stream open
+        return (pretty ? PRETTY : COMPACT).createGenerator(new NonClosing(os));
     }
 }
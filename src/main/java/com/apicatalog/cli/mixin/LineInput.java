@@ -0,0 +1,128 @@
+package com.apicatalog.cli.mixin;
+
+import java.io.BufferedReader;
+import java.io.PrintWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import jakarta.json.Json;
+import jakarta.json.JsonObjectBuilder;
+
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+
+public class LineInput {
+
+    public enum Format {
+        CSV, JSONL
+    }
+
+    @FunctionalInterface
+    public interface Analysis {
+        /**
+         * Analyzes a single line.
+         *
+         * @param line a non-blank input line
+         * @return row values matching the columns, <code>null</code> for an
+         *         empty value
+         */
+        Object[] analyze(String line) throws Exception;
+    }
+
+    @Option(names = { "--lines" }, description = "Process each input line as a separate value and write one result per line.")
+    public boolean enabled = false;
+
+    @Option(names = { "--format" }, description = "Analysis output format with --lines (default: csv).", paramLabel = "csv|jsonl")
+    public Format format = Format.CSV;
+
+    @Option(names = { "--threads" }, description = "Number of worker threads with --lines, 0 for virtual threads (default: number of processors).", paramLabel = "<count>")
+    public int threads = Runtime.getRuntime().availableProcessors();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Processes the input line by line.
+     *
+     * @param spec   a command specification
+     * @param input  an input
+     * @param output an output
+     * @param task   a task processing a single line
+     * @return an exit code
+     */
+    public int process(CommandSpec spec, ByteInput input, Output output, LineProcessor.Task task) throws Exception {
+        return process(spec, input, output, null, task);
+    }
+
+    int process(CommandSpec spec, ByteInput input, Output output, String header, LineProcessor.Task task) throws Exception {
+
+        try (final PrintWriter out = output.writer();
+                final BufferedReader reader = new BufferedReader(Channels.newReader(input.channel(), StandardCharsets.UTF_8), 64 * 1024)) {
+
+            if (header != null) {
+                out.println(header);
+            }
+
+            final long failed = LineProcessor.process(reader, out, spec.commandLine().getErr(), threads, task);
+
+            return failed == 0
+                    ? spec.exitCodeOnSuccess()
+                    : spec.exitCodeOnExecutionException();
+        }
+    }
+
+    /**
+     * Analyzes the input line by line, writes a row per line.
+     *
+     * @param spec     a command specification
+     * @param input    an input
+     * @param output   an output
+     * @param columns  row column names
+     * @param analysis a single line analysis
+     * @return an exit code
+     */
+    public int analyze(CommandSpec spec, ByteInput input, Output output, String[] columns, Analysis analysis) throws Exception {
+
+        if (format == Format.JSONL) {
+            return process(spec, input, output, null, line -> json(columns, analysis.analyze(line)));
+        }
+        return process(spec, input, output, csv(columns), line -> csv(analysis.analyze(line)));
+    }
+
+    static String csv(Object[] values) {
+        final StringBuilder row = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                row.append(',');
+            }
+            if (values[i] == null) {
+                continue;
+            }
+            final String value = values[i].toString();
+            if (value.indexOf(',') != -1 || value.indexOf('"') != -1 || value.indexOf('\n') != -1) {
+                row.append('"').append(value.replace("\"", "\"\"")).append('"');
+
+            } else {
+                row.append(value);
+            }
+        }
+        return row.toString();
+    }
+
+    static String json(String[] columns, Object[] values) {
+        final JsonObjectBuilder row = Json.createObjectBuilder();
+        for (int i = 0; i < columns.length; i++) {
+            if (values[i] == null) {
+                row.addNull(columns[i]);
+
+            } else if (values[i] instanceof Number number) {
+                row.add(columns[i], number.longValue());
+
+            } else {
+                row.add(columns[i], values[i].toString());
+            }
+        }
+        return row.build().toString();
+    }
+}
@@ -0,0 +1,149 @@
+package com.apicatalog.cli.mixin;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Processes input line by line, optionally in parallel. Results are written
+ * in the input order as soon as they are ready. A failed line is reported and
+ * does not stop processing.
+ */
+public final class LineProcessor {
+
+    @FunctionalInterface
+    public interface Task {
+        /**
+         * Processes a single line.
+         *
+         * @param line a non-blank input line
+         * @return a result to write, or <code>null</code> to write nothing
+         */
+        String process(String line) throws Exception;
+    }
+
+    /** The number of lines processed ahead of the output per a worker thread. */
+    static final int IN_FLIGHT = 4;
+
+    private LineProcessor() {
+    }
+
+    /**
+     * Processes all lines of the reader.
+     *
+     * @param reader  an input
+     * @param out     a result output
+     * @param err     a failure report output
+     * @param threads the number of worker threads, 0 for virtual threads
+     * @param task    a task processing a single line
+     * @return the number of failed lines
+     */
+    public static long process(BufferedReader reader, PrintWriter out, PrintWriter err, int threads, Task task) throws Exception {
+
+        long failed = 0;
+
+        if (threads == 1) {
+            String line;
+            long number = 0;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    write(out, task.process(line));
+
+                } catch (Exception e) {
+                    failed++;
+                    report(err, number, e);
+                }
+            }
+            out.flush();
+            return failed;
+        }
+
+        final BlockingQueue<Record> queue = new ArrayBlockingQueue<>((threads > 0 ? threads : 64) * IN_FLIGHT);
+        final AtomicReference<IOException> readerError = new AtomicReference<>();
+
+        try (final ExecutorService executor = threads > 0
+                ? Executors.newFixedThreadPool(threads)
+                : Executors.newVirtualThreadPerTaskExecutor()) {
+
+            Thread.ofPlatform().daemon().start(() -> {
+                try {
+                    String line;
+                    long number = 0;
+                    while ((line = reader.readLine()) != null) {
+                        number++;
+                        if (line.isBlank()) {
+                            continue;
+                        }
+                        final String record = line;
+                        queue.put(new Record(number, executor.submit(() -> task.process(record))));
+                    }
+                } catch (IOException e) {
+                    readerError.set(e);
+
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+
+                } finally {
+                    try {
+                        queue.put(Record.END);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+
+            Record record;
+            while ((record = queue.take()) != Record.END) {
+                try {
+                    write(out, record.result().get());
+
+                } catch (ExecutionException e) {
+                    failed++;
+                    report(err, record.number(), e.getCause());
+                }
+                // flush as soon as there is nothing more to write
+                if (queue.isEmpty()) {
+                    out.flush();
+                }
+            }
+        }
+
+        out.flush();
+
+        if (readerError.get() != null) {
+            throw readerError.get();
+        }
+
+        return failed;
+    }
+
+    record Record(long number, Future<String> result) {
+        static final Record END = new Record(-1, null);
+    }
+
+    static void write(PrintWriter out, String result) {
+        if (result == null) {
+            return;
+        }
+        out.write(result);
+        if (!result.endsWith("\n")) {
+            out.write('\n');
+        }
+    }
+
+    static void report(PrintWriter err, long line, Throwable e) {
+        err.println("Line " + line + ": " + e.getMessage());
+        err.flush();
+    }
+}
@@ -0,0 +1,68 @@
+package com.apicatalog.cli.mixin;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import com.apicatalog.jsonld.document.JsonDocument;
+
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+
+public class NdJsonInput {
+
+    @FunctionalInterface
+    public interface Task {
+        /**
+         * Processes a single record.
+         *
+         * @param document a parsed input record
+         * @return a serialized result
+         */
+        String process(JsonDocument document) throws Exception;
+    }
+
+    @Option(names = { "--ndjson" }, description = "Read newline-delimited JSON documents from standard input and write one result per line.")
+    public boolean enabled = false;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Processes standard input record by record. Results are written in the
+     * input order as soon as they are ready. A failed record is reported and
+     * does not stop processing.
+     *
+     * @param spec    a command specification
+     * @param output  an output
+     * @param threads the number of worker threads, 0 for virtual threads
+     * @param task    a task processing a single record
+     * @return an exit code
+     */
+    public int process(CommandSpec spec, Output output, int threads, Task task) throws Exception {
+
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), 64 * 1024);
+
+        final long failed;
+
+        try (final PrintWriter out = output.writer()) {
+            failed = LineProcessor.process(
+                    reader,
+                    out,
+                    spec.commandLine().getErr(),
+                    threads,
+                    line -> task.process(parse(line)));
+        }
+
+        return failed == 0
+                ? spec.exitCodeOnSuccess()
+                : spec.exitCodeOnExecutionException();
+    }
+
+    static JsonDocument parse(String line) throws Exception {
+        return JsonDocument.of(new StringReader(line));
+    }
+}
@@ -0,0 +1,133 @@
+package com.apicatalog.cli.mixin;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+
+import com.apicatalog.cli.metrics.Metrics;
+
+import picocli.CommandLine.Option;
+
+/**
+ * A buffered output sink shared by commands. Writes to a file, or to the
+ * standard output which is flushed but never closed.
+ */
+public class Output {
+
+    public enum Encoding {
+        RAW, HEX, BASE64
+    }
+
+    static final int BUFFER_SIZE = 256 * 1024;
+
+    @Option(names = { "--output" }, description = "Output file name, the standard output if not set.", paramLabel = "<file>")
+    public Path file = null;
+
+    public boolean isFile() {
+        return file != null;
+    }
+
+    /**
+     * Opens a buffered binary stream. Closing the stream flushes the standard
+     * output but does not close it.
+     */
+    public OutputStream open() throws IOException {
+        return new BufferedOutputStream(Metrics.writing(file != null
+                ? Files.newOutputStream(file)
+                : new NonClosing(System.out)),
+                BUFFER_SIZE);
+    }
+
+    /**
+     * Opens a buffered binary stream encoding all written bytes.
+     */
+    public OutputStream open(Encoding encoding) throws IOException {
+        return encode(open(), encoding);
+    }
+
+    /**
+     * Opens a buffered UTF-8 text writer.
+     */
+    public PrintWriter writer() throws IOException {
+        return new PrintWriter(new OutputStreamWriter(open(), StandardCharsets.UTF_8), false);
+    }
+
+    /**
+     * Writes the data and closes the output.
+     */
+    public void write(byte[] data, Encoding encoding) throws IOException {
+        try (final OutputStream os = open(encoding)) {
+            os.write(data);
+        }
+    }
+
+    public static OutputStream encode(OutputStream os, Encoding encoding) {
+        return switch (encoding) {
+        case RAW -> os;
+        case HEX -> new HexOutputStream(os);
+        case BASE64 -> Base64.getEncoder().wrap(os);
+        };
+    }
+
+    /**
+     * Lower case hexadecimal encoding of all written bytes.
+     */
+    static final class HexOutputStream extends FilterOutputStream {
+
+        static final byte[] ALPHABET = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+        final byte[] chunk;
+
+        HexOutputStream(OutputStream out) {
+            super(out);
+            this.chunk = new byte[8 * 1024];
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(ALPHABET[(b >> 4) & 0x0f]);
+            out.write(ALPHABET[b & 0x0f]);
+        }
+
+        @Override
+        public void write(byte[] data, int offset, int length) throws IOException {
+            int index = 0;
+            for (int i = offset; i < offset + length; i++) {
+                chunk[index++] = ALPHABET[(data[i] >> 4) & 0x0f];
+                chunk[index++] = ALPHABET[data[i] & 0x0f];
+                if (index == chunk.length) {
+                    out.write(chunk, 0, index);
+                    index = 0;
+                }
+            }
+            out.write(chunk, 0, index);
+        }
+    }
+
+    /**
+     * Shields a shared stream, e.g. the standard output, from being closed.
+     */
+    static final class NonClosing extends FilterOutputStream {
+
+        NonClosing(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] data, int offset, int length) throws IOException {
+            out.write(data, offset, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+    }
+}
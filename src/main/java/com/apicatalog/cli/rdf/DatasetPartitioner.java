@@ -0,0 +1,185 @@
+package com.apicatalog.cli.rdf;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import com.apicatalog.rdf.api.RdfConsumerException;
+import com.apicatalog.rdf.api.RdfQuadConsumer;
+import com.apicatalog.rdf.nquads.NQuadsWriter;
+
+/**
+ * Splits a dataset into partitions that are converted to JSON-LD
+ * independently. A partition holds subjects of a graph together with all blank
+ * nodes they reach in the graph, so lists and blank node references never span
+ * partitions. A named graph spanning several partitions is converted into
+ * several node objects with the same <code>@id</code> and a part of the graph,
+ * i.e. a valid expanded JSON-LD document.
+ */
+public final class DatasetPartitioner implements RdfQuadConsumer {
+
+    final Map<String, Integer> ids;
+
+    int[] parent;
+    int size;
+
+    final List<String> quads;
+    int[] owners;
+
+    final StringWriter buffer;
+    final NQuadsWriter writer;
+
+    public DatasetPartitioner() {
+        this.ids = new HashMap<>();
+        this.parent = new int[1024];
+        this.size = 0;
+        this.quads = new ArrayList<>();
+        this.owners = new int[1024];
+        this.buffer = new StringWriter(256);
+        this.writer = new NQuadsWriter(buffer);
+    }
+
+    @Override
+    public RdfQuadConsumer quad(String subject, String predicate, String object, String datatype, String language, String direction, String graph) throws RdfConsumerException {
+
+        // nodes are scoped by a graph, IRIs and blank node labels cannot contain a line break
+        final String scope = graph != null
+                ? "G" + graph + '\n'
+                : "S";
+
+        final int owner = id(scope + subject);
+
+        if (datatype == null && isBlank(object)) {
+            union(owner, id(scope + object));
+        }
+
+        if (quads.size() == owners.length) {
+            owners = Arrays.copyOf(owners, owners.length * 2);
+        }
+        owners[quads.size()] = owner;
+        quads.add(serialize(subject, predicate, object, datatype, language, direction, graph));
+
+        return this;
+    }
+
+    public int size() {
+        return quads.size();
+    }
+
+    /**
+     * Groups the consumed quads into partitions in the order their first quad
+     * has been read. Small partitions are packed together up to the given
+     * number of quads. Partitions are packed when requested and released
+     * quads are not retained.
+     *
+     * @param limit the preferred maximal number of quads in a partition
+     * @return partitions as N-Quads documents
+     */
+    public Iterator<byte[]> partitions(int limit) {
+
+        final Map<Integer, StringBuilder> components = new LinkedHashMap<>();
+
+        for (int i = 0; i < quads.size(); i++) {
+            components.computeIfAbsent(find(owners[i]), c -> new StringBuilder()).append(quads.get(i));
+            // release the quad as soon as it is copied
+            quads.set(i, null);
+        }
+
+        quads.clear();
+        ids.clear();
+        owners = new int[0];
+
+        final Iterator<StringBuilder> it = components.values().iterator();
+
+        return new Iterator<>() {
+
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public byte[] next() {
+
+                if (!it.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                final StringBuilder partition = new StringBuilder();
+                int count = 0;
+
+                while (it.hasNext() && count < limit) {
+                    final StringBuilder component = it.next();
+                    // release the component as soon as it is packed
+                    it.remove();
+                    partition.append(component);
+                    count += lines(component);
+                }
+
+                return partition.toString().getBytes(StandardCharsets.UTF_8);
+            }
+        };
+    }
+
+    int id(String key) {
+        final Integer id = ids.get(key);
+        if (id != null) {
+            return id;
+        }
+        if (size == parent.length) {
+            parent = Arrays.copyOf(parent, parent.length * 2);
+        }
+        parent[size] = size;
+        ids.put(key, size);
+        return size++;
+    }
+
+    int find(int node) {
+        while (parent[node] != node) {
+            // path halving
+            parent[node] = parent[parent[node]];
+            node = parent[node];
+        }
+        return node;
+    }
+
+    void union(int a, int b) {
+        final int x = find(a);
+        final int y = find(b);
+        if (x != y) {
+            // keep the earlier node as the root to preserve the input order
+            if (x < y) {
+                parent[y] = x;
+            } else {
+                parent[x] = y;
+            }
+        }
+    }
+
+    String serialize(String subject, String predicate, String object, String datatype, String language, String direction, String graph) throws RdfConsumerException {
+        buffer.getBuffer().setLength(0);
+        writer.quad(subject, predicate, object, datatype, language, direction, graph);
+        return buffer.toString();
+    }
+
+    static int lines(CharSequence quads) {
+        int lines = 0;
+        for (int i = 0; i < quads.length(); i++) {
+            if (quads.charAt(i) == '\n') {
+                lines++;
+            }
+        }
+        return lines;
+    }
+
+    static boolean isBlank(String resource) {
+        return resource.startsWith("_:");
+    }
+}
@@ -0,0 +1,163 @@
+package com.apicatalog.cli;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+
+class CompiledCborDictionaryTest {
+
+    static final JsonObject DICTIONARY = parse("""
+            {
+              "code": 100,
+              "context": { "https://www.w3.org/ns/credentials/v2": 32768 },
+              "uri": { "did:example:issuer": 32769, "https://example.org/é": 32770 },
+              "VerificationMethod": { "Multikey": 1 },
+              "code2": { "x": 2 }
+            }
+            """);
+
+    static final List<String> TERMS = List.of(
+            "context https://www.w3.org/ns/credentials/v2 32768",
+            "uri did:example:issuer 32769",
+            "uri https://example.org/é 32770",
+            "type VerificationMethod Multikey 1",
+            "type code2 x 2");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRoundTrip() throws Exception {
+
+        final Path path = dir.resolve("dictionary.ldcd");
+
+        assertEquals(5, CompiledCborDictionary.write(path, DICTIONARY));
+        assertTrue(CompiledCborDictionary.isCompiled(path));
+
+        final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        assertEquals(100, CompiledCborDictionary.header(path, buffer));
+
+        final List<String> terms = new ArrayList<>();
+        CompiledCborDictionary.read(path, buffer, recorder(terms));
+
+        assertEquals(TERMS, terms);
+    }
+
+    @Test
+    void testJsonTables() {
+        final List<String> terms = new ArrayList<>();
+        JsonCborDictionary.read(DICTIONARY, recorder(terms));
+        assertEquals(TERMS, terms);
+    }
+
+    @Test
+    void testTruncated() throws Exception {
+
+        final Path path = dir.resolve("dictionary.ldcd");
+        CompiledCborDictionary.write(path, DICTIONARY);
+
+        final byte[] bytes = Files.readAllBytes(path);
+
+        for (int length = CompiledCborDictionary.MAGIC.length; length < bytes.length; length++) {
+            final ByteBuffer buffer = ByteBuffer.wrap(Arrays.copyOf(bytes, length));
+            assertThrows(IOException.class, () -> {
+                CompiledCborDictionary.header(path, buffer);
+                CompiledCborDictionary.read(path, buffer, recorder(new ArrayList<>()));
+            }, "Length " + length);
+        }
+    }
+
+    @Test
+    void testTrailingBytes() throws Exception {
+
+        final Path path = dir.resolve("dictionary.ldcd");
+        CompiledCborDictionary.write(path, DICTIONARY);
+
+        final byte[] bytes = Files.readAllBytes(path);
+        final ByteBuffer buffer = ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length + 1));
+
+        CompiledCborDictionary.header(path, buffer);
+        assertThrows(IOException.class, () -> CompiledCborDictionary.read(path, buffer, recorder(new ArrayList<>())));
+    }
+
+    @Test
+    void testInvalidCode() throws Exception {
+
+        final Path path = dir.resolve("dictionary.ldcd");
+
+        assertThrows(IllegalArgumentException.class, () -> CompiledCborDictionary.write(path,
+                parse("{ \"code\": 4294967296, \"uri\": { \"did:example:issuer\": 1 } }")));
+
+        assertFalse(Files.exists(path));
+        assertEquals(0, files());
+    }
+
+    @Test
+    void testTermTooLong() throws Exception {
+
+        final Path path = dir.resolve("dictionary.ldcd");
+        CompiledCborDictionary.write(path, DICTIONARY);
+
+        final byte[] previous = Files.readAllBytes(path);
+
+        final JsonObject dictionary = Json.createObjectBuilder()
+                .add("code", 100)
+                .add("uri", Json.createObjectBuilder().add("é".repeat(0x8000), 1))
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () -> CompiledCborDictionary.write(path, dictionary));
+
+        assertArrayEquals(previous, Files.readAllBytes(path));
+        assertEquals(1, files());
+    }
+
+    long files() throws IOException {
+        try (final Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    static DictionaryTerms recorder(List<String> terms) {
+        return new DictionaryTerms() {
+
+            @Override
+            public void context(String term, int code) {
+                terms.add("context " + term + " " + code);
+            }
+
+            @Override
+            public void uri(String term, int code) {
+                terms.add("uri " + term + " " + code);
+            }
+
+            @Override
+            public void type(String type, int code, String term) {
+                terms.add("type " + type + " " + term + " " + code);
+            }
+        };
+    }
+
+    static JsonObject parse(String json) {
+        try (final var reader = Json.createReader(new StringReader(json))) {
+            return reader.readObject();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.apicatalog.cli.canon;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.apicatalog.rdf.api.RdfQuadConsumer;
+
+class CanonBudgetTest {
+
+    static final RdfQuadConsumer NONE = new RdfQuadConsumer() {
+        @Override
+        public RdfQuadConsumer quad(String subject, String predicate, String object, String datatype, String language, String direction, String graph) {
+            return this;
+        }
+    };
+
+    @Test
+    void testPassThrough() {
+        final CanonBudget budget = new CanonBudget(0, 0, 0, false);
+        assertSame(NONE, budget.consumer(NONE));
+        assertTrue(budget.report().startsWith("0 canonicalization steps, "), budget.report());
+    }
+
+    @Test
+    void testReport() throws Exception {
+
+        final CanonBudget budget = new CanonBudget(0, 0, 0, true);
+        final RdfQuadConsumer consumer = budget.consumer(NONE);
+
+        consumer.quad("_:b0", "http://example.org/p", "_:b1", null, null, null, null);
+        consumer.quad("_:b0", "http://example.org/p", "_:b2", "http://www.w3.org/2001/XMLSchema#string", null, null, "_:g");
+
+        assertTrue(budget.report().startsWith("2 quads, 3 blank nodes, 0 canonicalization steps, "), budget.report());
+    }
+
+    @Test
+    void testBlankNodeLimit() throws Exception {
+
+        final RdfQuadConsumer consumer = new CanonBudget(0, 1, 0, false).consumer(NONE);
+
+        consumer.quad("_:b0", "http://example.org/p", "_:b0", null, null, null, null);
+        assertThrows(IllegalStateException.class, () -> consumer.quad("_:b0", "http://example.org/p", "_:b1", null, null, null, null));
+    }
+}
@@ -0,0 +1,72 @@
+package com.apicatalog.cli.canon;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.apicatalog.rdf.nquads.NQuadsReader;
+
+class IncrementalCanonTest {
+
+    static final String DATASET = """
+            <http://example.org/s> <http://example.org/p> "b" .
+            <http://example.org/s> <http://example.org/p> "a" <http://example.org/g> .
+            <http://example.org/s> <http://example.org/p> "a" .
+            """;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testLinesReader() throws Exception {
+
+        final Iterator<String> lines = List.of("", "<http://example.org/s> ", "", "<http://example.org/p> \"a\" .\n", "x").iterator();
+
+        final StringWriter text = new StringWriter();
+        new IncrementalCanon.LinesReader(lines).transferTo(text);
+
+        assertEquals("<http://example.org/s> <http://example.org/p> \"a\" .\nx", text.toString());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "SHA-256", "SHA-384" })
+    void testHash(String algorithm) throws Exception {
+
+        final Path state = dir.resolve("state");
+
+        final IncrementalCanon canon = IncrementalCanon.create(algorithm);
+        new NQuadsReader(new StringReader(DATASET)).provide(canon);
+
+        final StringWriter output = new StringWriter();
+        final IncrementalCanon.Update update = canon.write(output, state, () -> {
+            throw new IllegalStateException("Ground quads are never canonicalized.");
+        });
+
+        assertEquals(3, update.ground());
+        assertEquals("""
+                <http://example.org/s> <http://example.org/p> "a" .
+                <http://example.org/s> <http://example.org/p> "a" <http://example.org/g> .
+                <http://example.org/s> <http://example.org/p> "b" .
+                """, output.toString());
+
+        assertArrayEquals(MessageDigest.getInstance(algorithm).digest(output.toString().getBytes(StandardCharsets.UTF_8)), update.hash());
+
+        // the reused state yields the same hash
+        final IncrementalCanon delta = IncrementalCanon.load(state, algorithm);
+        final StringWriter next = new StringWriter();
+        assertArrayEquals(update.hash(), delta.write(next, state, () -> null).hash());
+        assertEquals(output.toString(), next.toString());
+    }
+}
@@ -0,0 +1,152 @@
+package com.apicatalog.cli.canon;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.apicatalog.rdf.api.RdfQuadConsumer;
+import com.apicatalog.rdf.nquads.NQuadsReader;
+
+class MappedNQuadsReaderTest {
+
+    static final String DOCUMENT = """
+            # a comment line
+            <http://example.org/s> <http://example.org/p> <http://example.org/o> .
+            <http://example.org/s> <http://example.org/p> "plain" .
+            <http://example.org/s> <http://example.org/p> "typed"^^<http://www.w3.org/2001/XMLSchema#token> .
+            <http://example.org/s> <http://example.org/p> "hello"@en-US .
+            <http://example.org/s> <http://example.org/p> "hello"@en--ltr .
+            <http://example.org/s> <http://example.org/p> "tab\\tnl\\nbs\\bcr\\rff\\fq\\"a\\'s\\\\" .
+            <http://example.org/s> <http://example.org/p> "\\u00E9\\u20AC \\U0001F600 \\uD83D\\uDE00" .
+            <http://example.org/\\u0041\\U00000042> <http://example.org/p> "é€😀" <http://example.org/g> .
+            _:b0 <http://example.org/p> _:b.1 _:g1 .
+            \t<http://example.org/s>\t<http://example.org/p>\t"tabs"\t. # a trailing comment
+
+            _:b0 <http://example.org/p> "\\uD83D\\uDE00"@cs .
+            """;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testParity() throws Exception {
+        assertParity(DOCUMENT);
+    }
+
+    @Test
+    void testCrLf() throws Exception {
+        assertParity(DOCUMENT.replace("\n", "\r\n"));
+    }
+
+    @Test
+    void testNoFinalEol() throws Exception {
+        assertParity("<http://example.org/s> <http://example.org/p> \"x\" .");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "\\uD83D\\uDE00",
+            "\\U0001F600",
+            "😀"
+    })
+    void testSupplementaryCodePoint(String literal) throws Exception {
+        final List<List<String>> quads = mapped("<http://example.org/s> <http://example.org/p> \"" + literal + "\" .\n", MappedNQuadsReader.SEGMENT_SIZE);
+        assertEquals("😀", quads.get(0).get(2));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "\\uD83D",
+            "\\uDE00",
+            "\\uD83Dx",
+            "\\uD83D\\u0041",
+            "\\U0000D83D",
+    })
+    void testUnpairedSurrogate(String literal) throws Exception {
+        assertThrows(IllegalArgumentException.class,
+                () -> mapped("<http://example.org/s> <http://example.org/p> \"" + literal + "\" .\n", MappedNQuadsReader.SEGMENT_SIZE));
+    }
+
+    @Test
+    void testSegments() throws Exception {
+
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            builder.append(i % 2 == 0 ? DOCUMENT : DOCUMENT.replace("\n", "\r\n"));
+        }
+        final String document = builder.toString();
+
+        final List<List<String>> expected = reference(document);
+
+        final int longest = Arrays.stream(document.split("\n"))
+                .mapToInt(line -> line.getBytes(StandardCharsets.UTF_8).length + 1)
+                .max()
+                .getAsInt();
+
+        final Path file = write(document);
+
+        for (int segment = longest; segment < longest * 4; segment++) {
+            assertEquals(expected, mapped(file, segment), "Segment size " + segment);
+        }
+    }
+
+    @Test
+    void testLineExceedsSegment() throws Exception {
+        final Path file = write(DOCUMENT);
+        assertThrows(IllegalArgumentException.class, () -> mapped(file, 32));
+    }
+
+    void assertParity(String document) throws Exception {
+        final List<List<String>> expected = reference(document);
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, mapped(document, MappedNQuadsReader.SEGMENT_SIZE));
+    }
+
+    List<List<String>> mapped(String document, int segmentSize) throws Exception {
+        return mapped(write(document), segmentSize);
+    }
+
+    Path write(String document) throws IOException {
+        return Files.writeString(Files.createTempFile(dir, "test", ".nq"), document, StandardCharsets.UTF_8);
+    }
+
+    static List<List<String>> mapped(Path file, int segmentSize) throws Exception {
+        final List<List<String>> quads = new ArrayList<>();
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            new MappedNQuadsReader(segmentSize).read(channel, collector(quads));
+        }
+        return quads;
+    }
+
+    static List<List<String>> reference(String document) throws Exception {
+        final List<List<String>> quads = new ArrayList<>();
+        new NQuadsReader(new StringReader(document)).provide(collector(quads));
+        return quads;
+    }
+
+    static RdfQuadConsumer collector(List<List<String>> quads) {
+        return new RdfQuadConsumer() {
+            @Override
+            public RdfQuadConsumer quad(String subject, String predicate, String object, String datatype, String language, String direction, String graph) {
+                quads.add(Arrays.asList(subject, predicate, object, datatype, language, direction, graph));
+                return this;
+            }
+        };
+    }
+}
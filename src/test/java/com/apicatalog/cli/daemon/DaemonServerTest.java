@@ -0,0 +1,56 @@
+package com.apicatalog.cli.daemon;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DaemonServerTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRefuseRunningDaemon() throws Exception {
+
+        final Path socket = dir.resolve("daemon").resolve("daemon.sock");
+
+        try (final DaemonServer server = new DaemonServer(socket, (cwd, args) -> 0, System.err)) {
+            server.start();
+
+            assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(socket.getParent())));
+            assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(socket)));
+
+            try (final DaemonServer second = new DaemonServer(socket, (cwd, args) -> 0, System.err)) {
+                assertThrows(IllegalArgumentException.class, second::start);
+            }
+            assertTrue(DaemonServer.isListening(socket));
+        }
+    }
+
+    @Test
+    void testReplaceStaleSocket() throws Exception {
+
+        final Path socket = dir.resolve("daemon.sock");
+
+        // left behind by a killed daemon
+        try (final ServerSocketChannel channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            channel.bind(UnixDomainSocketAddress.of(socket));
+        }
+        assertTrue(Files.exists(socket));
+
+        try (final DaemonServer server = new DaemonServer(socket, (cwd, args) -> 0, System.err)) {
+            server.start();
+            assertTrue(DaemonServer.isListening(socket));
+        }
+    }
+}
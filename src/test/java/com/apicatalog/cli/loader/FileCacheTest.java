@@ -0,0 +1,109 @@
+package com.apicatalog.cli.loader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileCacheTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testEvict() throws Exception {
+
+        final FileCache cache = new FileCache(dir, 10);
+
+        cache.put("https://example.org/a", "https://example.org/a", bytes("aaaa"), null, null, null, null);
+        cache.put("https://example.org/b", "https://example.org/b", bytes("bbbb"), null, null, null, null);
+
+        // replacing an entry does not grow the total
+        cache.put("https://example.org/b", "https://example.org/b", bytes("BBBB"), null, null, null, null);
+        assertEquals(2, cache.list().size());
+        assertEquals(8, cache.total);
+
+        cache.put("https://example.org/c", "https://example.org/c", bytes("cccc"), null, null, null, null);
+
+        assertEquals(2, cache.list().size());
+        assertEquals(8, cache.total);
+        assertTrue(cache.get("https://example.org/a").isEmpty());
+    }
+
+    @Test
+    void testCollectGracePeriod() throws Exception {
+
+        final FileCache cache = new FileCache(dir, FileCache.DEFAULT_MAX_SIZE);
+
+        final FileCache.Entry fresh = cache.put("https://example.org/a", "https://example.org/a", bytes("a"), null, null, null, null);
+        final FileCache.Entry stale = cache.put("https://example.org/b", "https://example.org/b", bytes("b"), null, null, null, null);
+
+        Files.setLastModifiedTime(cache.objectPath(stale.digest()), FileTime.from(Instant.now().minus(FileCache.GRACE_PERIOD).minusSeconds(1)));
+
+        // objects written by another process not indexed yet
+        Files.delete(cache.indexPath(fresh.url()));
+        Files.delete(cache.indexPath(stale.url()));
+
+        cache.collect();
+
+        assertTrue(Files.exists(cache.objectPath(fresh.digest())));
+        assertFalse(Files.exists(cache.objectPath(stale.digest())));
+    }
+
+    @Test
+    void testCollectTemporaryFiles() throws Exception {
+
+        final FileCache cache = new FileCache(dir, FileCache.DEFAULT_MAX_SIZE);
+
+        final FileCache.Entry entry = cache.put("https://example.org/a", "https://example.org/a", bytes("a"), null, null, null, null);
+
+        final FileTime old = FileTime.from(Instant.now().minus(FileCache.GRACE_PERIOD).minusSeconds(1));
+
+        // left behind by killed processes
+        final Path staleObject = Files.setLastModifiedTime(Files.createTempFile(cache.objectPath(entry.digest()).getParent(), "object", ".tmp"), old);
+        final Path staleEntry = Files.setLastModifiedTime(Files.createTempFile(cache.index, "entry", ".tmp"), old);
+
+        // being written
+        final Path freshObject = Files.createTempFile(cache.objectPath(entry.digest()).getParent(), "object", ".tmp");
+        final Path freshEntry = Files.createTempFile(cache.index, "entry", ".tmp");
+
+        cache.collect();
+
+        assertFalse(Files.exists(staleObject));
+        assertFalse(Files.exists(staleEntry));
+        assertTrue(Files.exists(freshObject));
+        assertTrue(Files.exists(freshEntry));
+        assertTrue(Files.exists(cache.objectPath(entry.digest())));
+    }
+
+    @Test
+    void testPutRenewsObject() throws Exception {
+
+        final FileCache cache = new FileCache(dir, FileCache.DEFAULT_MAX_SIZE);
+
+        final FileCache.Entry entry = cache.put("https://example.org/a", "https://example.org/a", bytes("a"), null, null, null, null);
+        final Path object = cache.objectPath(entry.digest());
+
+        Files.setLastModifiedTime(object, FileTime.from(Instant.now().minus(FileCache.GRACE_PERIOD).minusSeconds(1)));
+        cache.remove(entry.url());
+        assertFalse(Files.exists(object));
+
+        cache.put("https://example.org/a", "https://example.org/a", bytes("a"), null, null, null, null);
+        Files.setLastModifiedTime(object, FileTime.from(Instant.now().minus(FileCache.GRACE_PERIOD).minusSeconds(1)));
+
+        cache.put("https://example.org/b", "https://example.org/b", bytes("a"), null, null, null, null);
+        assertFalse(FileCache.isWrittenBefore(object, Instant.now().minusSeconds(60)));
+    }
+
+    static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,95 @@
+package com.apicatalog.cli.loader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class ProcessingCacheTest {
+
+    @Test
+    void testHitsAndMisses() {
+
+        final ProcessingCache<String> cache = new ProcessingCache<>(2);
+
+        // a lookup as done by Titanium, get is called only if the key is present
+        assertFalse(cache.containsKey("a"));
+        cache.put("a", "A");
+
+        assertTrue(cache.containsKey("a"));
+        assertEquals("A", cache.get("a"));
+
+        assertTrue(cache.containsKey("a"));
+        assertEquals("A", cache.get("a"));
+
+        assertEquals(2, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    void testEviction() {
+
+        final ProcessingCache<String> cache = new ProcessingCache<>(2);
+
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.get("a");
+        cache.put("c", "C");
+
+        assertEquals(2, cache.size());
+        assertTrue(cache.containsKey("a"));
+        assertFalse(cache.containsKey("b"));
+        assertTrue(cache.containsKey("c"));
+    }
+
+    @Test
+    void testEvictedAfterLookup() throws Exception {
+
+        final ProcessingCache<String> cache = new ProcessingCache<>(1);
+        cache.put("a", "A");
+
+        assertTrue(cache.containsKey("a"));
+
+        // another thread evicts the entry between the lookup and the get
+        final Thread thread = new Thread(() -> cache.put("b", "B"));
+        thread.start();
+        thread.join();
+
+        assertEquals("A", cache.get("a"));
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void testConcurrentEviction() throws Exception {
+
+        final ProcessingCache<String> cache = new ProcessingCache<>(4);
+        final AtomicInteger failures = new AtomicInteger();
+
+        try (final ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                final int thread = t;
+                executor.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        final String key = Integer.toString((i + thread) % 16);
+                        if (cache.containsKey(key)) {
+                            if (!key.equals(cache.get(key))) {
+                                failures.incrementAndGet();
+                            }
+                        } else {
+                            cache.put(key, key);
+                        }
+                    }
+                });
+            }
+        }
+
+        assertEquals(0, failures.get());
+        assertEquals(8 * 20_000, cache.hits() + cache.misses());
+    }
+}
@@ -0,0 +1,120 @@
+package com.apicatalog.cli.mixin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import picocli.CommandLine;
+import picocli.CommandLine.Model.CommandSpec;
+
+class BatchOptionsTest {
+
+    static final int DOCUMENTS = 1000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testProcessInFlight() throws Exception {
+
+        final BatchOptions batch = batch(0);
+        batch.outputDir = dir.resolve("output");
+
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger peak = new AtomicInteger();
+
+        final int code = batch.process(spec(new StringWriter()), ".out", (input, os) -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(1);
+            os.write(Files.readAllBytes(input));
+            running.decrementAndGet();
+        });
+
+        assertEquals(0, code);
+        assertTrue(peak.get() <= batch.window(), "Peak " + peak.get());
+
+        // absolute listed paths are mirrored under the output directory
+        final Path output = batch.outputDir.resolve(dir.getRoot().relativize(dir.resolve("input")));
+
+        for (int i = 0; i < DOCUMENTS; i++) {
+            assertEquals(Integer.toString(i), Files.readString(output.resolve(i + ".out")));
+        }
+    }
+
+    @Test
+    void testDigestOrder() throws Exception {
+
+        final BatchOptions batch = batch(3);
+
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger peak = new AtomicInteger();
+
+        final StringWriter output = new StringWriter();
+        final StringWriter err = new StringWriter();
+
+        final int code = batch.digest(spec(err), output(output), input -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                final String value = Files.readString(input);
+                if (value.equals("7")) {
+                    throw new IllegalStateException("failed");
+                }
+                return value;
+            } finally {
+                running.decrementAndGet();
+            }
+        });
+
+        assertEquals(1, code);
+        assertTrue(peak.get() <= 3);
+        assertTrue(err.toString().contains("7.json: failed"));
+
+        final String[] lines = output.toString().split("\\R");
+        assertEquals(DOCUMENTS - 1, lines.length);
+
+        for (int i = 0, line = 0; i < DOCUMENTS; i++) {
+            if (i != 7) {
+                assertEquals(i + "  " + dir.resolve("input").resolve(i + ".json"), lines[line++]);
+            }
+        }
+    }
+
+    BatchOptions batch(int threads) throws Exception {
+
+        final Path input = Files.createDirectories(dir.resolve("input"));
+
+        final StringBuilder list = new StringBuilder();
+        for (int i = 0; i < DOCUMENTS; i++) {
+            list.append(Files.writeString(input.resolve(i + ".json"), Integer.toString(i), StandardCharsets.UTF_8)).append('\n');
+        }
+
+        final BatchOptions batch = new BatchOptions();
+        batch.batch = "@" + Files.writeString(dir.resolve("list.txt"), list);
+        batch.threads = threads;
+        return batch;
+    }
+
+    static CommandSpec spec(StringWriter err) {
+        final CommandLine cli = new CommandLine(CommandSpec.create());
+        cli.setErr(new PrintWriter(err, true));
+        return cli.getCommandSpec();
+    }
+
+    static Output output(StringWriter text) {
+        return new Output() {
+            @Override
+            public PrintWriter writer() {
+                return new PrintWriter(text);
+            }
+        };
+    }
+}
@@ -0,0 +1,87 @@
+package com.apicatalog.cli.rdf;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+import com.apicatalog.jsonld.JsonLd;
+import com.apicatalog.jsonld.document.JsonDocument;
+import com.apicatalog.jsonld.document.RdfDocument;
+import com.apicatalog.rdf.nquads.NQuadsReader;
+import com.apicatalog.rdf.nquads.NQuadsWriter;
+
+import jakarta.json.Json;
+import jakarta.json.JsonArrayBuilder;
+
+class DatasetPartitionerTest {
+
+    static final String DATASET = """
+            <http://example.org/a> <http://example.org/p> "1" <http://example.org/g> .
+            <http://example.org/b> <http://example.org/p> _:l1 <http://example.org/g> .
+            _:l1 <http://www.w3.org/1999/02/22-rdf-syntax-ns#first> "x" <http://example.org/g> .
+            _:l1 <http://www.w3.org/1999/02/22-rdf-syntax-ns#rest> <http://www.w3.org/1999/02/22-rdf-syntax-ns#nil> <http://example.org/g> .
+            <http://example.org/c> <http://example.org/p> "3" <http://example.org/g> .
+            <http://example.org/g> <http://example.org/label> "graph" .
+            <http://example.org/d> <http://example.org/p> "4" .
+            """;
+
+    @Test
+    void testNamedGraphSplit() throws Exception {
+
+        final List<String> partitions = partitions(DATASET, 1);
+
+        // a, b with the list, c, the graph node, d
+        assertEquals(5, partitions.size());
+        assertEquals(3, partitions.get(1).lines().count());
+    }
+
+    @Test
+    void testPacking() throws Exception {
+        assertEquals(2, partitions(DATASET, 4).size());
+        assertEquals(1, partitions(DATASET, 100).size());
+    }
+
+    @Test
+    void testRoundTrip() throws Exception {
+
+        final JsonArrayBuilder nodes = Json.createArrayBuilder();
+
+        for (final String partition : partitions(DATASET, 1)) {
+            JsonLd.fromRdf(RdfDocument.of(new ByteArrayInputStream(partition.getBytes(StandardCharsets.UTF_8))))
+                    .get()
+                    .forEach(nodes::add);
+        }
+
+        final StringWriter writer = new StringWriter();
+        JsonLd.toRdf(JsonDocument.of(nodes.build())).provide(new NQuadsWriter(writer));
+
+        assertEquals(lines(DATASET.replace("_:l1", "_:b0")), lines(writer.toString()));
+    }
+
+    static List<String> partitions(String dataset, int limit) throws Exception {
+
+        final DatasetPartitioner partitioner = new DatasetPartitioner();
+        new NQuadsReader(new StringReader(dataset)).provide(partitioner);
+
+        final List<String> partitions = new ArrayList<>();
+        final Iterator<byte[]> it = partitioner.partitions(limit);
+        while (it.hasNext()) {
+            partitions.add(new String(it.next(), StandardCharsets.UTF_8));
+        }
+        return partitions;
+    }
+
+    static Set<String> lines(String quads) {
+        return new TreeSet<>(quads.lines().toList());
+    }
+}